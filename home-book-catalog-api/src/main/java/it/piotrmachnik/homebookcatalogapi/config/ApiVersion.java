@@ -3,5 +3,7 @@ package it.piotrmachnik.homebookcatalogapi.config;
 public class ApiVersion {
 
     public static final String V1_HAL_JSON = "application/vnd.homebooks.v1+hal+json";
+    public static final String V1_CBOR = "application/vnd.homebooks.v1+cbor";
+    public static final String V1_SMILE = "application/vnd.homebooks.v1+smile";
     public static final String V2_FOR_ANGULAR = "application/vnd.homebooks.forangular.v2+hal+json";
 }
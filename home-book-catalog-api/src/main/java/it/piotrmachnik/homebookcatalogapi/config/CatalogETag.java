@@ -0,0 +1,10 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import java.lang.annotation.*;
+
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CatalogETag {
+    Class<?>[] value();
+}
@@ -0,0 +1,21 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class CatalogETagConfigurer implements WebMvcConfigurer {
+
+    private final CatalogVersions catalogVersions;
+
+    public CatalogETagConfigurer(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CatalogETagInterceptor(this.catalogVersions)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,54 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersions catalogVersions;
+
+    public CatalogETagInterceptor(CatalogVersions catalogVersions) {
+        this.catalogVersions = catalogVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || !isGetOrHead(request)) {
+            return true;
+        }
+        CatalogETag catalogETag = findCatalogETag((HandlerMethod) handler);
+        if (catalogETag == null) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = this.catalogVersions.etag(variant(request), catalogETag.value());
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    private static CatalogETag findCatalogETag(HandlerMethod handlerMethod) {
+        CatalogETag catalogETag = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), CatalogETag.class);
+        if (catalogETag == null) {
+            catalogETag = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), CatalogETag.class);
+        }
+        return catalogETag;
+    }
+
+    // V1 and V2 handlers share URLs but render different documents, so they must not share tags.
+    private static String variant(HttpServletRequest request) {
+        Object producible = request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        return producible == null ? "0" : Integer.toHexString(producible.hashCode());
+    }
+
+    private static boolean isGetOrHead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+}
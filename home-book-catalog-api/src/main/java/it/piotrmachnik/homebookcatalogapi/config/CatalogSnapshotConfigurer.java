@@ -0,0 +1,55 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import it.piotrmachnik.homebookcatalogapi.controller.AuthorRestApiController;
+import it.piotrmachnik.homebookcatalogapi.controller.BookRestApiController;
+import it.piotrmachnik.homebookcatalogapi.controller.RoomRestApiController;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.snapshot", name = "enabled", matchIfMissing = true)
+public class CatalogSnapshotConfigurer {
+
+    private static final List<Class<?>> SNAPSHOT_CONTROLLERS = List.of(
+            BookRestApiController.class, AuthorRestApiController.class, RoomRestApiController.class);
+
+    @Bean
+    public CatalogSnapshotFilter catalogSnapshotFilter(CatalogVersions catalogVersions,
+                                                       @Value("${catalog.snapshot.dir:}") String directory)
+            throws IOException {
+        return new CatalogSnapshotFilter(catalogVersions, typesByPath(),
+                directory.isBlank() ? Files.createTempDirectory("catalog-snapshots") : Paths.get(directory));
+    }
+
+    @Bean
+    public FilterRegistrationBean<CatalogSnapshotFilter> catalogSnapshotFilterRegistration(
+            CatalogSnapshotFilter catalogSnapshotFilter) {
+        FilterRegistrationBean<CatalogSnapshotFilter> registration = new FilterRegistrationBean<>(catalogSnapshotFilter);
+        registration.addUrlPatterns(typesByPath().keySet().toArray(String[]::new));
+        return registration;
+    }
+
+    // The full collection lives at each controller's root mapping and changes with the types its ETag tracks.
+    private static Map<String, Class<?>[]> typesByPath() {
+        Map<String, Class<?>[]> typesByPath = new LinkedHashMap<>();
+        for (Class<?> controller : SNAPSHOT_CONTROLLERS) {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+            CatalogETag catalogETag = AnnotatedElementUtils.findMergedAnnotation(controller, CatalogETag.class);
+            typesByPath.put(mapping.value()[0], catalogETag.value());
+        }
+        return typesByPath;
+    }
+}
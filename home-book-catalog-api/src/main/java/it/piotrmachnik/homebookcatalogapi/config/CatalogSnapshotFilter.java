@@ -0,0 +1,262 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+public class CatalogSnapshotFilter extends OncePerRequestFilter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String GZIP = "gzip";
+    private static final String SUFFIX = ".gz";
+    private static final String[] BASE_HEADERS = {"Forwarded", "X-Forwarded-Host", "X-Forwarded-Port",
+            "X-Forwarded-Proto", "X-Forwarded-Ssl", "X-Forwarded-Prefix"};
+    private static final int MAX_SNAPSHOTS = 64;
+    private static final int MAX_VARIANTS = 256;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CatalogVersions catalogVersions;
+    private final Map<String, Class<?>[]> typesByPath;
+    private final Path directory;
+    private final Map<String, String> keysByVariant = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_VARIANTS;
+        }
+    });
+    private final Map<String, Snapshot> snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            if (size() > MAX_SNAPSHOTS) {
+                retire(eldest.getValue().file);
+                return true;
+            }
+            return false;
+        }
+    });
+    private final Deque<Path> retired = new ArrayDeque<>();
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshotFilter(CatalogVersions catalogVersions, Map<String, Class<?>[]> typesByPath,
+                                 Path directory) throws IOException {
+        this.catalogVersions = catalogVersions;
+        this.typesByPath = typesByPath;
+        this.directory = Files.createDirectories(directory);
+        deleteSnapshotFiles();
+    }
+
+    public int size() {
+        return this.snapshots.size();
+    }
+
+    // Cross-origin requests go through MVC, whose @CrossOrigin mappings answer with the Access-Control headers.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return CorsUtils.isCorsRequest(request)
+                || !HttpMethod.GET.matches(request.getMethod())
+                || !request.getParameterMap().isEmpty()
+                || !this.typesByPath.containsKey(path(request))
+                || !acceptsGzip(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String variant = key(request, request.getHeader(HttpHeaders.ACCEPT));
+        String version = version(request);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String negotiated = this.keysByVariant.get(variant);
+        Snapshot snapshot = negotiated == null ? null : this.snapshots.get(negotiated);
+        if (snapshot != null && snapshot.version.equals(version) && serve(snapshot, request, response)) {
+            return;
+        }
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, capture);
+        if (isSnapshotable(capture)) {
+            String contentType = capture.getContentType();
+            String key = key(request, contentType);
+            this.keysByVariant.put(variant, key);
+            Snapshot current = this.snapshots.get(key);
+            if ((current == null || !current.version.equals(version)) && this.writing.add(key)) {
+                String etag = capture.getHeader(HttpHeaders.ETAG);
+                byte[] body = capture.getContentAsByteArray();
+                Class<?>[] types = this.typesByPath.get(path(request));
+                this.writer.execute(() -> write(key, version, types, contentType, etag, body));
+            }
+        }
+        capture.copyBodyToResponse();
+    }
+
+    private boolean serve(Snapshot snapshot, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (snapshot.etag != null && new ServletWebRequest(request, response).checkNotModified(snapshot.etag)) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            prepare(snapshot, response);
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.length);
+            return true;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(snapshot.file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try (channel) {
+            prepare(snapshot, response);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < snapshot.length) {
+                position += channel.transferTo(position, snapshot.length - position, out);
+            }
+        }
+        return true;
+    }
+
+    private static void prepare(Snapshot snapshot, HttpServletResponse response) {
+        response.setContentType(snapshot.contentType);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLengthLong(snapshot.length);
+    }
+
+    private void write(String key, String version, Class<?>[] types, String contentType, String etag, byte[] body) {
+        try {
+            if (!version.equals(this.catalogVersions.etag(GZIP, types))) {
+                return;
+            }
+            Path file = this.directory.resolve(this.sequence.incrementAndGet() + SUFFIX);
+            Path partial = this.directory.resolve(file.getFileName() + ".part");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), BUFFER_SIZE)) {
+                out.write(body);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            Snapshot previous = this.snapshots.put(key, new Snapshot(version, contentType, etag, file,
+                    Files.size(file)));
+            if (previous != null) {
+                retire(previous.file);
+            }
+        } catch (IOException e) {
+            log.warn("Writing the catalog snapshot for {} failed", key, e);
+        } finally {
+            this.writing.remove(key);
+        }
+    }
+
+    // Replaced and evicted files may still be queued for sendfile, so they are only deleted a while later.
+    private void retire(Path file) {
+        this.retired.addLast(file);
+        while (this.retired.size() > MAX_SNAPSHOTS) {
+            Path stale = this.retired.removeFirst();
+            try {
+                Files.deleteIfExists(stale);
+            } catch (IOException e) {
+                log.warn("Deleting the catalog snapshot {} failed", stale, e);
+            }
+        }
+    }
+
+    private String version(HttpServletRequest request) {
+        return this.catalogVersions.etag(GZIP, this.typesByPath.get(path(request)));
+    }
+
+    // Links are absolute, so every base the links are built from gets its own snapshot. Snapshots are keyed by the
+    // negotiated content type; the Accept headers that negotiated it map onto that key.
+    private static String key(HttpServletRequest request, String mediaType) {
+        StringBuilder key = new StringBuilder(request.getRequestURL()).append('|').append(mediaType);
+        for (String header : BASE_HEADERS) {
+            String value = request.getHeader(header);
+            key.append('|').append(value == null ? "" : value);
+        }
+        return key.toString();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static boolean isSnapshotable(HttpServletResponse response) {
+        return response.getStatus() == HttpStatus.OK.value()
+                && response.getContentType() != null
+                && response.getHeader(HttpHeaders.CONTENT_ENCODING) == null;
+    }
+
+    private void deleteSnapshotFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + SUFFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.writer.shutdownNow();
+        try {
+            deleteSnapshotFiles();
+        } catch (IOException e) {
+            log.warn("Deleting catalog snapshots from {} failed", this.directory, e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final String version;
+        private final String contentType;
+        private final String etag;
+        private final Path file;
+        private final long length;
+    }
+}
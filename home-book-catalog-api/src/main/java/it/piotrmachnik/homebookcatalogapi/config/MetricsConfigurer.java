@@ -0,0 +1,99 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Configuration
+public class MetricsConfigurer {
+
+    public static final String TAG_HANDLER = "handler";
+    public static final String TAG_MEDIA_TYPE = "media.type";
+    public static final String STATEMENTS_PER_REQUEST = "hibernate.statements.per.request";
+
+    private static final String NONE = "none";
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public WebMvcTagsContributor handlerAndMediaTypeTags() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                return Tags.of(Tag.of(TAG_HANDLER, handlerName(handler)), Tag.of(TAG_MEDIA_TYPE, mediaType(response)));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of(TAG_HANDLER, handlerName(handler));
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> statementsPerRequestFilter(StatementCounter statementCounter,
+                                                                                  MeterRegistry meterRegistry) {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                statementCounter.start();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    int statements = statementCounter.stop();
+                    DistributionSummary.builder(STATEMENTS_PER_REQUEST)
+                            .description("JDBC statements prepared by Hibernate while handling one request")
+                            .tag(TAG_HANDLER, handlerName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)))
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)
+                            .record(statements);
+                }
+            }
+        });
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return NONE;
+    }
+
+    private static String mediaType(HttpServletResponse response) {
+        if (response == null || response.getContentType() == null) {
+            return NONE;
+        }
+        MediaType mediaType = MediaType.parseMediaType(response.getContentType());
+        return mediaType.getType() + "/" + mediaType.getSubtype();
+    }
+}
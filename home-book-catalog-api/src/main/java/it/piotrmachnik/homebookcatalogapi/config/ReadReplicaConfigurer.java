@@ -0,0 +1,87 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.datasource.replicas[0]", name = "url")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfigurer {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesGuard readYourWritesGuard(HikariDataSource primaryDataSource) {
+        return new ReadYourWritesGuard(primaryDataSource);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties readReplicaProperties,
+                                                             ReadYourWritesGuard readYourWritesGuard) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> replicaProperties = readReplicaProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            ReadReplicaProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() == null
+                    ? dataSourceProperties.determineUsername() : replica.getUsername());
+            dataSource.setPassword(replica.getPassword() == null
+                    ? dataSourceProperties.determinePassword() : replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(readReplicaProperties.getConnectionTimeout().toMillis());
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesGuard,
+                readReplicaProperties.getHealthCheckInterval(), readReplicaProperties.getLagCheckInterval(),
+                readReplicaProperties.getConnectionTimeout());
+    }
+
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getReplicas().forEach(replica ->
+                replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    // The physical connection is only fetched at the first statement, once the transaction's read-only flag is known.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // With open-in-view a session would otherwise keep the first transaction's connection for the whole request.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
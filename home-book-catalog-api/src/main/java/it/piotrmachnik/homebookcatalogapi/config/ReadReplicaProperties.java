@@ -0,0 +1,29 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("catalog.datasource")
+@Getter
+@Setter
+public class ReadReplicaProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private Duration lagCheckInterval = Duration.ofMillis(200);
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,85 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class ReadYourWritesGuard {
+
+    static final String ADVANCE_HEARTBEAT = "update replica_heartbeat set beat = beat + 1 where id_replica_heartbeat = 1";
+    static final String SELECT_HEARTBEAT = "select beat from replica_heartbeat where id_replica_heartbeat = 1";
+
+    private final JdbcTemplate primary;
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+    private final AtomicLong requiredHeartbeat = new AtomicLong();
+
+    public ReadYourWritesGuard(DataSource primary) {
+        this.primary = new JdbcTemplate(primary);
+    }
+
+    // Registered once per transaction. Reads stay on the primary from its commit until the heartbeat written
+    // after it is known.
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advanceHeartbeat();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                ReadYourWritesGuard.this.writesInFlight.incrementAndGet();
+                this.committing = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(ReadYourWritesGuard.this);
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        advanceHeartbeat();
+                    }
+                } finally {
+                    if (this.committing) {
+                        ReadYourWritesGuard.this.writesInFlight.decrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    public boolean isPinnedToPrimary() {
+        return this.writesInFlight.get() > 0;
+    }
+
+    // A replica may serve reads once it has applied this beat.
+    public long getRequiredHeartbeat() {
+        return this.requiredHeartbeat.get();
+    }
+
+    private void advanceHeartbeat() {
+        try {
+            this.primary.update(ADVANCE_HEARTBEAT);
+            Long beat = this.primary.queryForObject(SELECT_HEARTBEAT, Long.class);
+            this.requiredHeartbeat.accumulateAndGet(beat, Math::max);
+        } catch (DataAccessException e) {
+            log.warn("Could not advance the replica heartbeat, replicas may serve reads older than the last write", e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Duration healthCheckInterval;
+    private final Duration lagCheckInterval;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+    private volatile Map<String, Long> appliedHeartbeats = Map.of();
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, HikariDataSource> replicas,
+                                    ReadYourWritesGuard readYourWritesGuard, Duration healthCheckInterval,
+                                    Duration lagCheckInterval, Duration validationTimeout) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.healthCheckInterval = healthCheckInterval;
+        this.lagCheckInterval = lagCheckInterval;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = this.healthCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        long lagInterval = this.lagCheckInterval.toMillis();
+        this.healthChecker.scheduleWithFixedDelay(this::checkLag, lagInterval, lagInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || this.readYourWritesGuard.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        long required = this.readYourWritesGuard.getRequiredHeartbeat();
+        List<String> healthy = this.healthyReplicas;
+        Map<String, Long> applied = this.appliedHeartbeats;
+        int start = this.next.getAndIncrement();
+        for (int i = 0; i < healthy.size(); i++) {
+            String key = healthy.get(Math.floorMod(start + i, healthy.size()));
+            if (applied.getOrDefault(key, Long.MIN_VALUE) >= required) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        DataSource replica = this.replicas.get(key);
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markDown((String) key, e);
+            }
+        }
+        return this.primary.getConnection();
+    }
+
+    public Collection<HikariDataSource> getReplicas() {
+        return this.replicas.values();
+    }
+
+    public List<String> getHealthyReplicas() {
+        return this.healthyReplicas;
+    }
+
+    public Map<String, Long> getAppliedHeartbeats() {
+        return this.appliedHeartbeats;
+    }
+
+    public synchronized void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        Map<String, Long> applied = new HashMap<>();
+        this.replicas.forEach((key, dataSource) -> {
+            Long beat = validHeartbeat(key, dataSource);
+            if (beat != null) {
+                healthy.add(key);
+                applied.put(key, beat);
+            } else if (dataSource.getHikariPoolMXBean() != null) {
+                dataSource.getHikariPoolMXBean().softEvictConnections();
+            }
+        });
+        healthy.stream().filter(key -> !this.healthyReplicas.contains(key))
+                .forEach(key -> log.info("Replica {} is available for reads", key));
+        this.healthyReplicas = List.copyOf(healthy);
+        this.appliedHeartbeats = Map.copyOf(applied);
+    }
+
+    // Replicas only serve reads once their copy of the heartbeat has caught up with the last write.
+    public synchronized void checkLag() {
+        Map<String, Long> applied = new HashMap<>();
+        for (String key : this.healthyReplicas) {
+            try (Connection connection = this.replicas.get(key).getConnection()) {
+                applied.put(key, heartbeat(connection));
+            } catch (SQLException e) {
+                markDown(key, e);
+            }
+        }
+        this.appliedHeartbeats = Map.copyOf(applied);
+    }
+
+    private Long validHeartbeat(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(this.validationTimeoutSeconds)) {
+                return heartbeat(connection);
+            }
+            if (this.healthyReplicas.contains(key)) {
+                log.warn("Replica {} failed validation, routing its reads to the primary", key);
+            }
+        } catch (SQLException e) {
+            if (this.healthyReplicas.contains(key)) {
+                log.warn("Replica {} is unavailable, routing its reads to the primary", key, e);
+            }
+        }
+        return null;
+    }
+
+    private long heartbeat(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(ReadYourWritesGuard.SELECT_HEARTBEAT)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Replica heartbeat row is missing");
+            }
+            return resultSet.getLong(1);
+        }
+    }
+
+    private synchronized void markDown(String key, SQLException cause) {
+        if (this.healthyReplicas.contains(key)) {
+            log.warn("Replica {} refused a connection, routing its reads to the primary", key, cause);
+            List<String> healthy = new ArrayList<>(this.healthyReplicas);
+            healthy.remove(key);
+            this.healthyReplicas = List.copyOf(healthy);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.healthChecker.shutdownNow();
+        this.replicas.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,30 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+@Configuration
+public class StartupConfigurer {
+
+    // With spring.main.lazy-initialization the schema must still be migrated and validated before the first
+    // request, so the persistence stack is always created eagerly.
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class,
+                FlywayMigrationInitializer.class, AbstractEntityManagerFactoryBean.class, EntityManagerFactory.class);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "catalog.startup", name = "training-run", havingValue = "true")
+    public StartupTrainingRun startupTrainingRun() {
+        return new StartupTrainingRun();
+    }
+}
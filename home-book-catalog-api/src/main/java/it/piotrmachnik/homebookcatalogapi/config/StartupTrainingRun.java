@@ -0,0 +1,53 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Exercises the read endpoints once and shuts the application down, so that a JVM started with
+ * {@code -XX:ArchiveClassesAtExit} dumps every class needed up to and including the first requests.
+ */
+@Slf4j
+public class StartupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final List<String> PATHS = List.of("/api/books", "/api/authors", "/api/publishers",
+            "/api/rooms", "/api/shelves", "/api/statuses", "/api/statustypes");
+    private static final List<String> MEDIA_TYPES = List.of(ApiVersion.V1_HAL_JSON, ApiVersion.V2_FOR_ANGULAR);
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        if (port != null) {
+            HttpClient client = HttpClient.newHttpClient();
+            for (String path : PATHS) {
+                for (String mediaType : MEDIA_TYPES) {
+                    request(client, URI.create("http://localhost:" + port + path), mediaType);
+                }
+            }
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static void request(HttpClient client, URI uri, String mediaType) {
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).header("Accept", mediaType).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            log.info("Training request {} as {} returned {}", uri, mediaType, response.statusCode());
+        } catch (IOException e) {
+            log.warn("Training request {} failed", uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
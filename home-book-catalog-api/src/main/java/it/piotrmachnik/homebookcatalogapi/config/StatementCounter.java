@@ -0,0 +1,27 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] current = this.count.get();
+        if (current != null) {
+            current[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        this.count.set(new int[1]);
+    }
+
+    public int stop() {
+        int[] current = this.count.get();
+        this.count.remove();
+        return current == null ? 0 : current[0];
+    }
+}
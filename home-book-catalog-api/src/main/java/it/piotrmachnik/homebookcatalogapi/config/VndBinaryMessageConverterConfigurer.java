@@ -0,0 +1,37 @@
+package it.piotrmachnik.homebookcatalogapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class VndBinaryMessageConverterConfigurer implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    public VndBinaryMessageConverterConfigurer(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        this.objectMapperBuilders = objectMapperBuilders;
+    }
+
+    // Same Jackson customisations as the JSON converters, so the binary bodies carry the v1 representation unchanged.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(
+                this.objectMapperBuilders.getObject().factory(new CBORFactory()).build());
+        cbor.setSupportedMediaTypes(List.of(MediaType.parseMediaType(ApiVersion.V1_CBOR)));
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter(
+                this.objectMapperBuilders.getObject().factory(new SmileFactory()).build());
+        smile.setSupportedMediaTypes(List.of(MediaType.parseMediaType(ApiVersion.V1_SMILE)));
+        converters.add(cbor);
+        converters.add(smile);
+    }
+}
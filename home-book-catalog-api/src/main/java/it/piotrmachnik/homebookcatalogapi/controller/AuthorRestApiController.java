@@ -1,10 +1,14 @@
 package it.piotrmachnik.homebookcatalogapi.controller;
 
 import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
 import it.piotrmachnik.homebookcatalogapi.model.Author;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.AuthorDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.AuthorRepository;
 import it.piotrmachnik.homebookcatalogapi.service.AuthorService;
+import it.piotrmachnik.homebookcatalogapi.service.NameSuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
@@ -20,19 +24,39 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/authors", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@CatalogETag({Author.class, Book.class})
+@RequestMapping(value = "/api/authors", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class AuthorRestApiController {
 
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOKS = "books";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(AuthorRestApiController.class).getAuthor(id));
+    private static final LinkTemplate BOOKS_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByAuthor(id, null, null));
     @Autowired
     private AuthorRepository authorRepository;
 
     private AuthorService authorService;
+    private NameSuggestionService nameSuggestionService;
 
-    public AuthorRestApiController(AuthorService authorService) {
+    public AuthorRestApiController(AuthorService authorService, NameSuggestionService nameSuggestionService) {
         this.authorService = authorService;
+        this.nameSuggestionService = nameSuggestionService;
+    }
+
+    @GetMapping(path = "/suggest")
+    public List<NameSuggestionDTO> suggestAuthors(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                  @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestAuthors(prefix, limit);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/suggest", produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<NameSuggestionDTO> suggestAuthorsForAngular(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestAuthors(prefix, limit);
     }
 
     @GetMapping(path = "/{id}")
@@ -136,25 +160,15 @@ public class AuthorRestApiController {
 
     private EntityModel<Author> resource(Author author) {
         EntityModel<Author> authorResource = EntityModel.of(author);
-        authorResource.add(linkTo(
-                methodOn(AuthorRestApiController.class)
-                        .getAuthor(author.getId()))
-                .withSelfRel());
-        authorResource.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByAuthor(author.getId()))
-                .withRel(REL_BOOKS));
+        authorResource.add(SELF_LINK.expand(author.getId()));
+        authorResource.add(BOOKS_LINK.expand(author.getId()).withRel(REL_BOOKS));
         return authorResource;
     }
 
     private EntityModel<AuthorDTO> resourceAngular(AuthorDTO author) {
         EntityModel<AuthorDTO> authorResource = EntityModel.of(author);
-        authorResource.add(linkTo(
-                methodOn(AuthorRestApiController.class)
-                        .getAuthor(author.getId()))
-                .withSelfRel());
-        authorResource.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByAuthor(author.getId()))
-                .withRel(REL_BOOKS));
+        authorResource.add(SELF_LINK.expand(author.getId()));
+        authorResource.add(BOOKS_LINK.expand(author.getId()).withRel(REL_BOOKS));
         return authorResource;
     }
 
@@ -1,40 +1,98 @@
 package it.piotrmachnik.homebookcatalogapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
+import it.piotrmachnik.homebookcatalogapi.model.Author;
 import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Publisher;
+import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.model.Status;
+import it.piotrmachnik.homebookcatalogapi.model.StatusType;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookExportFormat;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFieldSet;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFilter;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookImportResultDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookPageRequest;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRelocationDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRowDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSearchResultDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSlice;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.BookSpecifications;
+import it.piotrmachnik.homebookcatalogapi.service.BookExportService;
+import it.piotrmachnik.homebookcatalogapi.service.BookImportService;
+import it.piotrmachnik.homebookcatalogapi.service.BookSearchService;
 import it.piotrmachnik.homebookcatalogapi.service.BookService;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogReadModel;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.CollectionModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.hateoas.*;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/books", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@CatalogETag({Book.class, Author.class, Publisher.class, Shelf.class, Room.class, Status.class, StatusType.class})
+@RequestMapping(value = "/api/books", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class BookRestApiController {
 
     private static final String REL_SELF = "self";
+    private static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+    private static final String PARAM_PAGE = "page";
+    private static final String PARAM_AFTER = "after";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBook(id, null));
     @Autowired
     private BookRepository bookRepository;
 
     private BookService bookService;
-
-    public BookRestApiController(BookService bookService) {
+    private BookImportService bookImportService;
+    private BookExportService bookExportService;
+    private BookSearchService bookSearchService;
+    private CatalogReadModel catalogReadModel;
+    private ObjectMapper objectMapper;
+
+    public BookRestApiController(BookService bookService, BookImportService bookImportService,
+                                 BookExportService bookExportService, BookSearchService bookSearchService,
+                                 CatalogReadModel catalogReadModel, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookSearchService = bookSearchService;
+        this.catalogReadModel = catalogReadModel;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<EntityModel<Book>> getBook(@PathVariable Integer id) {
-        return this.bookRepository.findById(id)
+    public ResponseEntity<? extends EntityModel<?>> getBook(@PathVariable Integer id, BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResource(BookSpecifications.byId(id), fieldSet);
+        }
+        return this.catalogReadModel.read(snapshot -> snapshot.book(id), () -> this.bookRepository.findById(id))
                 .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -42,32 +100,54 @@ public class BookRestApiController {
 
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(path = "/{id}", produces = ApiVersion.V2_FOR_ANGULAR)
-    public ResponseEntity<EntityModel<Book>> getBookForAngular(@PathVariable Integer id) {
-        return this.bookRepository.findById(id)
+    public ResponseEntity<? extends EntityModel<?>> getBookForAngular(@PathVariable Integer id, BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResource(BookSpecifications.byId(id), fieldSet);
+        }
+        return this.catalogReadModel.read(snapshot -> snapshot.book(id), () -> this.bookRepository.findById(id))
                 .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<Book>> getBooks() {
+    public CollectionModel<? extends EntityModel<?>> getBooks(BookPageRequest pageRequest, BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.all(), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.all(), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
-                this.bookRepository.findAll().stream().map(this::resource)
+                this.catalogReadModel.read(CatalogSnapshot::books, this.bookRepository::findAll).stream().map(this::resource)
                         .collect(Collectors.toList()));
         addBookLink(resources, REL_SELF);
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksForAngular() {
-        List<EntityModel<Book>> resources = this.bookRepository.findAll().stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksForAngular(BookPageRequest pageRequest,
+                                                                                       BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.all(), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.all(), pageRequest);
+        }
+        return ok(rows(BookSpecifications.all(), CatalogSnapshot::bookRows));
     }
 
     @GetMapping(params = "idAuthor")
-    public CollectionModel<EntityModel<Book>> getBooksByAuthor(@RequestParam("idAuthor") Integer idAuthor) {
+    public CollectionModel<? extends EntityModel<?>> getBooksByAuthor(@RequestParam("idAuthor") Integer idAuthor,
+                                                                      BookPageRequest pageRequest,
+                                                                      BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byAuthor(idAuthor), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byAuthor(idAuthor), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
                 this.bookRepository.findByAuthorId(idAuthor).stream().map(this::resource)
                         .collect(Collectors.toList()));
@@ -75,33 +155,62 @@ public class BookRestApiController {
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "idAuthor", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksByAuthorForAngular(@RequestParam("idAuthor") Integer idAuthor) {
-        List<EntityModel<Book>> resources = this.bookRepository.findByAuthorId(idAuthor).stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksByAuthorForAngular(@RequestParam("idAuthor") Integer idAuthor,
+                                                                                               BookPageRequest pageRequest,
+                                                                                               BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byAuthor(idAuthor), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byAuthor(idAuthor), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byAuthor(idAuthor)));
     }
 
     @GetMapping(params = "idRoom")
-    public CollectionModel<EntityModel<Book>> getBooksByRoom(@RequestParam("idRoom") Integer idRoom) {
+    public CollectionModel<? extends EntityModel<?>> getBooksByRoom(@RequestParam("idRoom") Integer idRoom,
+                                                                    BookPageRequest pageRequest,
+                                                                    BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byRoom(idRoom), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byRoom(idRoom), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
-                this.bookRepository.findByShelfRoomId(idRoom).stream().map(this::resource)
+                this.catalogReadModel.read(snapshot -> snapshot.booksByRoom(idRoom),
+                        () -> this.bookRepository.findByShelfRoomId(idRoom)).stream().map(this::resource)
                         .collect(Collectors.toList()));
         addBookLink(resources, REL_SELF);
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "idRoom", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksByRoomForAuthor(@RequestParam("idRoom") Integer idRoom) {
-        List<EntityModel<Book>> resources = this.bookRepository.findByShelfRoomId(idRoom).stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksByRoomForAuthor(@RequestParam("idRoom") Integer idRoom,
+                                                                                            BookPageRequest pageRequest,
+                                                                                            BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byRoom(idRoom), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byRoom(idRoom), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byRoom(idRoom), snapshot -> snapshot.bookRowsByRoom(idRoom)));
     }
 
     @GetMapping(params = "idPublisher")
-    public CollectionModel<EntityModel<Book>> getBooksByPublisher(@RequestParam("idPublisher") Integer idAuthor) {
+    public CollectionModel<? extends EntityModel<?>> getBooksByPublisher(@RequestParam("idPublisher") Integer idAuthor,
+                                                                         BookPageRequest pageRequest,
+                                                                         BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byPublisher(idAuthor), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byPublisher(idAuthor), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
                 this.bookRepository.findByPublisherId(idAuthor).stream().map(this::resource)
                         .collect(Collectors.toList()));
@@ -109,50 +218,88 @@ public class BookRestApiController {
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "idPublisher", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksByPublisherForAngular(@RequestParam("idPublisher") Integer idAuthor) {
-        List<EntityModel<Book>> resources = this.bookRepository.findByPublisherId(idAuthor).stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksByPublisherForAngular(@RequestParam("idPublisher") Integer idAuthor,
+                                                                                                  BookPageRequest pageRequest,
+                                                                                                  BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byPublisher(idAuthor), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byPublisher(idAuthor), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byPublisher(idAuthor)));
     }
 
     @GetMapping(params = "idShelf")
-    public CollectionModel<EntityModel<Book>> getBooksByShelf(@RequestParam("idShelf") Integer idShelf) {
+    public CollectionModel<? extends EntityModel<?>> getBooksByShelf(@RequestParam("idShelf") Integer idShelf,
+                                                                     BookPageRequest pageRequest,
+                                                                     BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byShelf(idShelf), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byShelf(idShelf), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
-                this.bookRepository.findByShelfId(idShelf).stream().map(this::resource)
+                this.catalogReadModel.read(snapshot -> snapshot.booksByShelf(idShelf),
+                        () -> this.bookRepository.findByShelfId(idShelf)).stream().map(this::resource)
                         .collect(Collectors.toList()));
         addBookLink(resources, REL_SELF);
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "idShelf", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksByShelfForAngular(@RequestParam("idShelf") Integer idShelf) {
-        List<EntityModel<Book>> resources = this.bookRepository.findByShelfId(idShelf).stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksByShelfForAngular(@RequestParam("idShelf") Integer idShelf,
+                                                                                              BookPageRequest pageRequest,
+                                                                                              BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byShelf(idShelf), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byShelf(idShelf), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byShelf(idShelf), snapshot -> snapshot.bookRowsByShelf(idShelf)));
     }
 
     @GetMapping(params = "idStatusType")
-    public CollectionModel<EntityModel<Book>> getBooksByStatusType(@RequestParam("idStatusType") Integer idStatusType) {
+    public CollectionModel<? extends EntityModel<?>> getBooksByStatusType(@RequestParam("idStatusType") Integer idStatusType,
+                                                                          BookPageRequest pageRequest,
+                                                                          BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byStatusType(idStatusType), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byStatusType(idStatusType), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
-                this.bookRepository.findByStatusStatusTypeId(idStatusType).stream().map(this::resource)
+                this.bookRepository.findByStatusTypeId(idStatusType).stream().map(this::resource)
                         .collect(Collectors.toList()));
         addBookLink(resources, REL_SELF);
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "idStatusType", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> getBooksByStatusTypeForAngular(@RequestParam("idStatusType") Integer idStatusType) {
-        List<EntityModel<Book>> resources = this.bookRepository.findByStatusStatusTypeId(idStatusType).stream().map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> getBooksByStatusTypeForAngular(@RequestParam("idStatusType") Integer idStatusType,
+                                                                                                   BookPageRequest pageRequest,
+                                                                                                   BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byStatusType(idStatusType), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byStatusType(idStatusType), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byStatusType(idStatusType)));
     }
 
     @GetMapping(params = "idStatus")
-    public ResponseEntity<EntityModel<Book>> getBookByStatus(@RequestParam("idStatus") Integer idStatus) {
+    public ResponseEntity<? extends EntityModel<?>> getBookByStatus(@RequestParam("idStatus") Integer idStatus, BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResource(BookSpecifications.byStatus(idStatus), fieldSet);
+        }
                 return this.bookRepository.findByStatusId(idStatus)
                         .map(this::resource)
                         .map(this::ok)
@@ -161,7 +308,10 @@ public class BookRestApiController {
 
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(params = "idStatus", produces = ApiVersion.V2_FOR_ANGULAR)
-    public ResponseEntity<EntityModel<Book>> getBookByStatusForAngular(@RequestParam("idStatus") Integer idStatus) {
+    public ResponseEntity<? extends EntityModel<?>> getBookByStatusForAngular(@RequestParam("idStatus") Integer idStatus, BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResource(BookSpecifications.byStatus(idStatus), fieldSet);
+        }
                 return this.bookRepository.findByStatusId(idStatus)
                         .map(this::resource)
                         .map(this::ok)
@@ -169,7 +319,15 @@ public class BookRestApiController {
     }
 
     @GetMapping(params = "name")
-    public CollectionModel<EntityModel<Book>> findBookByName(@RequestParam("name") String name) {
+    public CollectionModel<? extends EntityModel<?>> findBookByName(@RequestParam("name") String name,
+                                                                    BookPageRequest pageRequest,
+                                                                    BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.byName(name), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedResources(BookSpecifications.byName(name), pageRequest);
+        }
         CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
                 this.bookRepository.findBookByName(name).stream()
                         .map(this::resource)
@@ -178,13 +336,18 @@ public class BookRestApiController {
         return resources;
     }
 
-    @CrossOrigin(origins = "http://localhost:4200")
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
     @GetMapping(params = "name", produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<EntityModel<Book>> findBookByNameForAngular(@RequestParam("name") String name) {
-        List<EntityModel<Book>> resources = this.bookRepository.findBookByName(name).stream()
-                        .map(this::resource)
-                        .collect(Collectors.toList());
-        return resources;
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> findBookByNameForAngular(@RequestParam("name") String name,
+                                                                                             BookPageRequest pageRequest,
+                                                                                             BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.byName(name), pageRequest, fieldSet);
+        }
+        if (pageRequest.isPaged()) {
+            return pagedList(BookSpecifications.byName(name), pageRequest);
+        }
+        return ok(rows(BookSpecifications.byName(name)));
     }
 
     @PostMapping
@@ -204,6 +367,94 @@ public class BookRestApiController {
                 .build();
     }
 
+    @GetMapping(path = "/filter")
+    public CollectionModel<? extends EntityModel<?>> filterBooks(BookFilter filter, BookPageRequest pageRequest,
+                                                                 BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldResources(BookSpecifications.matching(filter), paged(pageRequest), fieldSet);
+        }
+        return pagedResources(BookSpecifications.matching(filter), paged(pageRequest));
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.LINK, HEADER_TOTAL_COUNT})
+    @GetMapping(path = "/filter", produces = ApiVersion.V2_FOR_ANGULAR)
+    public ResponseEntity<? extends List<? extends EntityModel<?>>> filterBooksForAngular(BookFilter filter,
+                                                                                          BookPageRequest pageRequest,
+                                                                                          BookFieldSet fieldSet) {
+        if (fieldSet.isSparse()) {
+            return fieldList(BookSpecifications.matching(filter), paged(pageRequest), fieldSet);
+        }
+        return pagedList(BookSpecifications.matching(filter), paged(pageRequest));
+    }
+
+    @GetMapping(path = "/search")
+    public BookSearchResultDTO searchBooks(@RequestParam("q") String q, BookPageRequest pageRequest)
+            throws IOException {
+        return this.bookSearchService.search(q, pageRequest.getPage() == null ? 0 : Math.max(pageRequest.getPage(), 0),
+                pageRequest.getLimit());
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/search", produces = ApiVersion.V2_FOR_ANGULAR)
+    public BookSearchResultDTO searchBooksForAngular(@RequestParam("q") String q, BookPageRequest pageRequest)
+            throws IOException {
+        return searchBooks(q, pageRequest);
+    }
+
+    @PostMapping(path = "/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        this.bookSearchService.rebuildInBackground();
+        return ResponseEntity.accepted().build();
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/export", produces = MediaType.ALL_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "idRoom", required = false) Integer idRoom,
+            @RequestParam(name = "idShelf", required = false) Integer idShelf,
+            @RequestParam(name = "idAuthor", required = false) Integer idAuthor,
+            @RequestParam(name = "idStatusType", required = false) Integer idStatusType) {
+        BookExportFormat exportFormat = BookExportFormat.parse(format);
+        Specification<Book> filter = BookSpecifications.all();
+        if (idRoom != null) {
+            filter = filter.and(BookSpecifications.byRoom(idRoom));
+        }
+        if (idShelf != null) {
+            filter = filter.and(BookSpecifications.byShelf(idShelf));
+        }
+        if (idAuthor != null) {
+            filter = filter.and(BookSpecifications.byAuthor(idAuthor));
+        }
+        if (idStatusType != null) {
+            filter = filter.and(BookSpecifications.byStatusType(idStatusType));
+        }
+        Specification<Book> exportFilter = filter;
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + exportFormat.name().toLowerCase(Locale.ROOT)).build().toString())
+                .body(output -> this.bookExportService.exportBooks(exportFilter, exportFormat, output));
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BookImportResultDTO> addBooks(@RequestBody List<Book> books) {
+        return this.bookImportService.addBooks(books.iterator());
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<BookImportResultDTO> addBooksForAngular(@RequestBody List<Book> books) {
+        return this.bookImportService.addBooks(books.iterator());
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public List<BookImportResultDTO> addBooksStream(HttpServletRequest request) throws IOException {
+        try (BufferedReader reader = request.getReader()) {
+            return this.bookImportService.addBooks(new NdjsonBookIterator(reader, this.objectMapper));
+        }
+    }
+
     @PatchMapping(path = "/{id}")
     public void updateBook(@PathVariable Integer id, @RequestBody Book newPartialBook) {
         this.bookService.updateBook(id, newPartialBook);
@@ -215,15 +466,31 @@ public class BookRestApiController {
         this.bookService.updateBook(id, newPartialBook);
     }
 
+    @PostMapping(path = "/relocations")
+    public RelocationResultDTO relocateBooks(@RequestBody BookRelocationDTO relocation) {
+        return this.bookService.relocateBooks(relocation);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @PostMapping(path = "/relocations", produces = ApiVersion.V2_FOR_ANGULAR)
+    public RelocationResultDTO relocateBooksForAngular(@RequestBody BookRelocationDTO relocation) {
+        return this.bookService.relocateBooks(relocation);
+    }
+
     @DeleteMapping(path = "/{id}")
     public void deleteBook(@PathVariable("id") Integer id) {
-        this.bookRepository.deleteById(id);
+        this.bookService.deleteBook(id);
     }
 
     @CrossOrigin(origins = "http://localhost:4200")
     @DeleteMapping(path = "/{id}", produces = ApiVersion.V2_FOR_ANGULAR)
     public void deleteBookForAngular(@PathVariable("id") Integer id) {
-        this.bookRepository.deleteById(id);
+        this.bookService.deleteBook(id);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
 
     private ResponseEntity<String> notFound() {
@@ -236,14 +503,166 @@ public class BookRestApiController {
 
     private EntityModel<Book> resource(Book book) {
         EntityModel<Book> bookResource = EntityModel.of(book);
-        bookResource.add(linkTo(
-                methodOn(BookRestApiController.class)
-                        .getBook(book.getId()))
-                .withSelfRel());
+        bookResource.add(SELF_LINK.expand(book.getId()));
         return bookResource;
     }
 
-    private void addBookLink(CollectionModel<EntityModel<Book>> resources, String rel) {
+    private EntityModel<BookRowDTO> resource(BookRowDTO row) {
+        return EntityModel.of(row, SELF_LINK.expand(row.id()));
+    }
+
+    // Filter results are always paged, an unpaged request gets the first keyset page.
+    private static BookPageRequest paged(BookPageRequest pageRequest) {
+        if (!pageRequest.isPaged()) {
+            pageRequest.setSize(BookPageRequest.DEFAULT_SIZE);
+        }
+        return pageRequest;
+    }
+
+    private CollectionModel<EntityModel<Book>> pagedResources(Specification<Book> filter, BookPageRequest pageRequest) {
+        if (pageRequest.isOffset()) {
+            Page<Book> page = this.bookService.getBooksPage(filter, pageRequest);
+            PagedModel<EntityModel<Book>> resources = PagedModel.of(
+                    page.getContent().stream().map(this::resource).collect(Collectors.toList()),
+                    new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(),
+                            page.getTotalPages()));
+            resources.add(Link.of(currentRequest().toUriString(), IanaLinkRelations.SELF));
+            pageLinks(page).forEach(resources::add);
+            return resources;
+        }
+        BookSlice<Book> slice = this.bookService.getBooksAfter(filter, pageRequest);
+        CollectionModel<EntityModel<Book>> resources = CollectionModel.of(
+                slice.getContent().stream().map(this::resource).collect(Collectors.toList()));
+        resources.add(Link.of(currentRequest().toUriString(), IanaLinkRelations.SELF));
+        sliceLinks(slice).forEach(resources::add);
+        return resources;
+    }
+
+    private ResponseEntity<List<EntityModel<BookRowDTO>>> pagedList(Specification<Book> filter, BookPageRequest pageRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        List<Book> books;
+        List<Link> links;
+        if (pageRequest.isOffset()) {
+            Page<Book> page = this.bookService.getBooksPage(filter, pageRequest);
+            headers.set(HEADER_TOTAL_COUNT, String.valueOf(page.getTotalElements()));
+            books = page.getContent();
+            links = pageLinks(page);
+        } else {
+            BookSlice<Book> slice = this.bookService.getBooksAfter(filter, pageRequest);
+            books = slice.getContent();
+            links = sliceLinks(slice);
+        }
+        if (!links.isEmpty()) {
+            headers.set(HttpHeaders.LINK, links.stream().map(Link::toString).collect(Collectors.joining(", ")));
+        }
+        return ResponseEntity.ok().headers(headers)
+                .body(books.stream().map(BookRowDTO::of).map(this::resource).collect(Collectors.toList()));
+    }
+
+    private List<EntityModel<BookRowDTO>> rows(Specification<Book> filter) {
+        return this.bookService.getBookRows(filter).stream().map(this::resource).collect(Collectors.toList());
+    }
+
+    private List<EntityModel<BookRowDTO>> rows(Specification<Book> filter,
+                                               Function<CatalogSnapshot, List<BookRowDTO>> fromSnapshot) {
+        return this.catalogReadModel.read(fromSnapshot, () -> this.bookService.getBookRows(filter)).stream()
+                .map(this::resource).collect(Collectors.toList());
+    }
+
+    private ResponseEntity<EntityModel<Map<String, Object>>> fieldResource(Specification<Book> filter,
+                                                                           BookFieldSet fieldSet) {
+        return this.bookService.getBookFields(filter, fieldSet).stream().findFirst()
+                .map(row -> resource(row, fieldSet))
+                .map(this::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private CollectionModel<EntityModel<Map<String, Object>>> fieldResources(Specification<Book> filter,
+                                                                             BookPageRequest pageRequest,
+                                                                             BookFieldSet fieldSet) {
+        if (!pageRequest.isPaged()) {
+            CollectionModel<EntityModel<Map<String, Object>>> resources = CollectionModel.of(
+                    resources(this.bookService.getBookFields(filter, fieldSet), fieldSet));
+            addBookLink(resources, REL_SELF);
+            return resources;
+        }
+        if (pageRequest.isOffset()) {
+            Page<Map<String, Object>> page = this.bookService.getBookFieldsPage(filter, pageRequest, fieldSet);
+            PagedModel<EntityModel<Map<String, Object>>> resources = PagedModel.of(
+                    resources(page.getContent(), fieldSet),
+                    new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(),
+                            page.getTotalPages()));
+            resources.add(Link.of(currentRequest().toUriString(), IanaLinkRelations.SELF));
+            pageLinks(page).forEach(resources::add);
+            return resources;
+        }
+        BookSlice<Map<String, Object>> slice = this.bookService.getBookFieldsAfter(filter, pageRequest, fieldSet);
+        CollectionModel<EntityModel<Map<String, Object>>> resources = CollectionModel.of(
+                resources(slice.getContent(), fieldSet));
+        resources.add(Link.of(currentRequest().toUriString(), IanaLinkRelations.SELF));
+        sliceLinks(slice).forEach(resources::add);
+        return resources;
+    }
+
+    private ResponseEntity<List<EntityModel<Map<String, Object>>>> fieldList(Specification<Book> filter,
+                                                                             BookPageRequest pageRequest,
+                                                                             BookFieldSet fieldSet) {
+        if (!pageRequest.isPaged()) {
+            return ok(resources(this.bookService.getBookFields(filter, fieldSet), fieldSet));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        List<Map<String, Object>> rows;
+        List<Link> links;
+        if (pageRequest.isOffset()) {
+            Page<Map<String, Object>> page = this.bookService.getBookFieldsPage(filter, pageRequest, fieldSet);
+            headers.set(HEADER_TOTAL_COUNT, String.valueOf(page.getTotalElements()));
+            rows = page.getContent();
+            links = pageLinks(page);
+        } else {
+            BookSlice<Map<String, Object>> slice = this.bookService.getBookFieldsAfter(filter, pageRequest, fieldSet);
+            rows = slice.getContent();
+            links = sliceLinks(slice);
+        }
+        if (!links.isEmpty()) {
+            headers.set(HttpHeaders.LINK, links.stream().map(Link::toString).collect(Collectors.joining(", ")));
+        }
+        return ResponseEntity.ok().headers(headers).body(resources(rows, fieldSet));
+    }
+
+    private List<EntityModel<Map<String, Object>>> resources(List<Map<String, Object>> rows, BookFieldSet fieldSet) {
+        return rows.stream().map(row -> resource(row, fieldSet)).collect(Collectors.toList());
+    }
+
+    private EntityModel<Map<String, Object>> resource(Map<String, Object> row, BookFieldSet fieldSet) {
+        return EntityModel.of(fieldSet.render(row), SELF_LINK.expand((Integer) row.get(BookSort.PROPERTY_ID)));
+    }
+
+    private List<Link> pageLinks(Page<?> page) {
+        List<Link> links = new ArrayList<>();
+        if (page.hasPrevious()) {
+            links.add(Link.of(currentRequest().replaceQueryParam(PARAM_PAGE, page.getNumber() - 1).toUriString(),
+                    IanaLinkRelations.PREV));
+        }
+        if (page.hasNext()) {
+            links.add(Link.of(currentRequest().replaceQueryParam(PARAM_PAGE, page.getNumber() + 1).toUriString(),
+                    IanaLinkRelations.NEXT));
+        }
+        return links;
+    }
+
+    private List<Link> sliceLinks(BookSlice<?> slice) {
+        if (!slice.hasNext()) {
+            return List.of();
+        }
+        return List.of(Link.of(currentRequest().replaceQueryParam(PARAM_AFTER, slice.getNext().encode()).toUriString(),
+                IanaLinkRelations.NEXT));
+    }
+
+    private ServletUriComponentsBuilder currentRequest() {
+        return ServletUriComponentsBuilder.fromCurrentRequest();
+    }
+
+    private void addBookLink(CollectionModel<?> resources, String rel) {
         resources.add(linkTo(BookRestApiController.class)
                 .withRel(rel));
     }
@@ -0,0 +1,93 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+public final class LinkTemplate {
+
+    private static final int SENTINEL_ID = 1_999_999_937;
+    private static final String SENTINEL = Integer.toString(SENTINEL_ID);
+    private static final String BASE_KEY_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_KEY";
+    private static final String[] BASE_HEADERS = {"Forwarded", "X-Forwarded-Host", "X-Forwarded-Port",
+            "X-Forwarded-Proto", "X-Forwarded-Ssl", "X-Forwarded-Prefix"};
+    private static final int MAX_BASES = 64;
+    private static final String[] NOT_SPLITTABLE = new String[0];
+
+    private final Function<Integer, Object> invocation;
+    private final Map<String, String[]> templatesByBase = new ConcurrentHashMap<>();
+
+    private LinkTemplate(Function<Integer, Object> invocation) {
+        this.invocation = invocation;
+    }
+
+    public static LinkTemplate of(Function<Integer, Object> invocation) {
+        return new LinkTemplate(invocation);
+    }
+
+    public Link expand(Integer id) {
+        if (id == null) {
+            return linkTo(this.invocation.apply(null)).withSelfRel();
+        }
+        String[] template = template();
+        if (template == NOT_SPLITTABLE) {
+            return linkTo(this.invocation.apply(id)).withSelfRel();
+        }
+        return Link.of(template[0] + id + template[1]);
+    }
+
+    private String[] template() {
+        String baseKey = baseKey();
+        String[] template = this.templatesByBase.get(baseKey);
+        if (template == null) {
+            if (this.templatesByBase.size() >= MAX_BASES) {
+                this.templatesByBase.clear();
+            }
+            template = split(linkTo(this.invocation.apply(SENTINEL_ID)).toUri().toString());
+            this.templatesByBase.put(baseKey, template);
+        }
+        return template;
+    }
+
+    private static String[] split(String href) {
+        int at = href.indexOf(SENTINEL);
+        if (at < 0 || at != href.lastIndexOf(SENTINEL)) {
+            return NOT_SPLITTABLE;
+        }
+        return new String[]{href.substring(0, at), href.substring(at + SENTINEL.length())};
+    }
+
+    // Everything WebMvcLinkBuilder derives the base URI from, resolved once per request.
+    private static String baseKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return "";
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        Object cached = request.getAttribute(BASE_KEY_ATTRIBUTE);
+        if (cached != null) {
+            return (String) cached;
+        }
+        StringBuilder key = new StringBuilder()
+                .append(request.getScheme()).append('|')
+                .append(request.getServerName()).append('|')
+                .append(request.getServerPort()).append('|')
+                .append(request.getContextPath()).append('|')
+                .append(request.getHttpServletMapping() == null ? "" : request.getHttpServletMapping().getPattern());
+        for (String header : BASE_HEADERS) {
+            String value = request.getHeader(header);
+            key.append('|').append(value == null ? "" : value);
+        }
+        String baseKey = key.toString();
+        request.setAttribute(BASE_KEY_ATTRIBUTE, baseKey);
+        return baseKey;
+    }
+}
@@ -0,0 +1,55 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+class NdjsonBookIterator implements Iterator<Book> {
+
+    private final BufferedReader reader;
+    private final ObjectReader bookReader;
+    private String nextLine;
+
+    NdjsonBookIterator(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.bookReader = objectMapper.readerFor(Book.class);
+        this.nextLine = readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.nextLine != null;
+    }
+
+    @Override
+    public Book next() {
+        if (this.nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        String line = this.nextLine;
+        this.nextLine = readLine();
+        try {
+            return this.bookReader.readValue(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String readLine() {
+        try {
+            String line;
+            do {
+                line = this.reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package it.piotrmachnik.homebookcatalogapi.controller;
 import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
 import it.piotrmachnik.homebookcatalogapi.model.Publisher;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.PublisherDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.PublisherRepository;
 import it.piotrmachnik.homebookcatalogapi.service.PublisherService;
+import it.piotrmachnik.homebookcatalogapi.service.NameSuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
@@ -20,18 +22,37 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/publishers", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@RequestMapping(value = "/api/publishers", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class PublisherRestApiController {
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOKS = "books";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(PublisherRestApiController.class).getPublisher(id));
+    private static final LinkTemplate BOOKS_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByPublisher(id, null, null));
     @Autowired
     private PublisherRepository publisherRepository;
 
     private PublisherService publisherService;
+    private NameSuggestionService nameSuggestionService;
 
-    public PublisherRestApiController(PublisherService publisherService) {
+    public PublisherRestApiController(PublisherService publisherService, NameSuggestionService nameSuggestionService) {
         this.publisherService = publisherService;
+        this.nameSuggestionService = nameSuggestionService;
+    }
+
+    @GetMapping(path = "/suggest")
+    public List<NameSuggestionDTO> suggestPublishers(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                     @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestPublishers(prefix, limit);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/suggest", produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<NameSuggestionDTO> suggestPublishersForAngular(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                               @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestPublishers(prefix, limit);
     }
 
     @GetMapping(path = "/{id}")
@@ -135,25 +156,15 @@ public class PublisherRestApiController {
 
     private EntityModel<Publisher> resource(Publisher publisher) {
         EntityModel<Publisher> publisherResource = EntityModel.of(publisher);
-        publisherResource.add(linkTo(
-                methodOn(PublisherRestApiController.class)
-                        .getPublisher(publisher.getId()))
-                .withSelfRel());
-        publisherResource.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByPublisher(publisher.getId()))
-                .withRel(REL_BOOKS));
+        publisherResource.add(SELF_LINK.expand(publisher.getId()));
+        publisherResource.add(BOOKS_LINK.expand(publisher.getId()).withRel(REL_BOOKS));
         return publisherResource;
     }
 
     private EntityModel<PublisherDTO> resourceAngular(PublisherDTO publisher) {
         EntityModel<PublisherDTO> publisherDTOResource = EntityModel.of(publisher);
-        publisherDTOResource.add(linkTo(
-                methodOn(PublisherRestApiController.class)
-                        .getPublisher(publisher.getId()))
-                .withSelfRel());
-        publisherDTOResource.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByPublisher(publisher.getId()))
-                .withRel(REL_BOOKS));
+        publisherDTOResource.add(SELF_LINK.expand(publisher.getId()));
+        publisherDTOResource.add(BOOKS_LINK.expand(publisher.getId()).withRel(REL_BOOKS));
         return publisherDTOResource;
     }
 
@@ -1,10 +1,18 @@
 package it.piotrmachnik.homebookcatalogapi.controller;
 
 import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
 import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.RoomDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.RoomRepository;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogReadModel;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogSnapshot;
 import it.piotrmachnik.homebookcatalogapi.service.RoomService;
+import it.piotrmachnik.homebookcatalogapi.service.NameSuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
@@ -20,24 +28,50 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/rooms", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@CatalogETag({Room.class, Shelf.class, Book.class})
+@RequestMapping(value = "/api/rooms", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class RoomRestApiController {
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOKS = "books";
     private static final String REL_SHELVES = "shelves";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(RoomRestApiController.class).getRoom(id));
+    private static final LinkTemplate BOOKS_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByRoom(id, null, null));
+    private static final LinkTemplate SHELVES_LINK =
+            LinkTemplate.of(id -> methodOn(ShelfRestApiController.class).getShelvesByRoom(id));
     @Autowired
     private RoomRepository roomRepository;
 
     private RoomService roomService;
+    private NameSuggestionService nameSuggestionService;
+    private CatalogReadModel catalogReadModel;
 
-    public RoomRestApiController(RoomService roomService) {
+    public RoomRestApiController(RoomService roomService, NameSuggestionService nameSuggestionService,
+                                 CatalogReadModel catalogReadModel) {
         this.roomService = roomService;
+        this.nameSuggestionService = nameSuggestionService;
+        this.catalogReadModel = catalogReadModel;
+    }
+
+    @GetMapping(path = "/suggest")
+    public List<NameSuggestionDTO> suggestRooms(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestRooms(prefix, limit);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/suggest", produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<NameSuggestionDTO> suggestRoomsForAngular(@RequestParam(name = "prefix", defaultValue = "") String prefix,
+                                                          @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return this.nameSuggestionService.suggestRooms(prefix, limit);
     }
 
     @GetMapping(path = "/{id}")
     public ResponseEntity<EntityModel<Room>> getRoom(@PathVariable Integer id) {
-        return this.roomRepository.findById(id).map(this::resource)
+        return this.catalogReadModel.read(snapshot -> snapshot.room(id), () -> this.roomRepository.findById(id))
+                .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -45,7 +79,8 @@ public class RoomRestApiController {
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(path = "/{id}", produces = ApiVersion.V2_FOR_ANGULAR)
     public ResponseEntity<EntityModel<Room>> getRoomForAngular(@PathVariable Integer id) {
-        return this.roomRepository.findById(id).map(this::resource)
+        return this.catalogReadModel.read(snapshot -> snapshot.room(id), () -> this.roomRepository.findById(id))
+                .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -53,7 +88,8 @@ public class RoomRestApiController {
     @GetMapping
     public CollectionModel<EntityModel<Room>> getRooms() {
         CollectionModel<EntityModel<Room>> resources = CollectionModel.of(
-                this.roomRepository.findAll().stream().map(this::resource)
+                this.catalogReadModel.read(CatalogSnapshot::rooms, this.roomRepository::findAll).stream()
+                        .map(this::resource)
                         .collect(Collectors.toList()));
         addRoomLink(resources, REL_SELF);
         return resources;
@@ -62,7 +98,8 @@ public class RoomRestApiController {
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(produces = ApiVersion.V2_FOR_ANGULAR)
     public List<EntityModel<RoomDTO>> getRoomsForAngular() {
-        return this.roomService.getRoomsForAngular().stream().map(this::resourceAngular)
+        return this.catalogReadModel.read(CatalogSnapshot::roomRows, this.roomService::getRoomsForAngular).stream()
+                .map(this::resourceAngular)
                 .collect(Collectors.toList());
     }
 
@@ -126,6 +163,22 @@ public class RoomRestApiController {
         this.roomService.updateRoom(id, newPartialRoom);
     }
 
+    @PostMapping(path = "/{id}/merge")
+    public RelocationResultDTO mergeRoom(@PathVariable Integer id, @RequestParam("into") Integer idInto) {
+        return this.roomService.mergeRoom(id, idInto);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @PostMapping(path = "/{id}/merge", produces = ApiVersion.V2_FOR_ANGULAR)
+    public RelocationResultDTO mergeRoomForAngular(@PathVariable Integer id, @RequestParam("into") Integer idInto) {
+        return this.roomService.mergeRoom(id, idInto);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
     private ResponseEntity<String> notFound() {
         return ResponseEntity.notFound().build();
     }
@@ -136,10 +189,7 @@ public class RoomRestApiController {
 
     private EntityModel<Room> resource(Room room) {
         EntityModel<Room> roomResource = EntityModel.of(room);
-        roomResource.add(linkTo(
-                methodOn(RoomRestApiController.class)
-                        .getRoom(room.getId()))
-                .withSelfRel());
+        roomResource.add(SELF_LINK.expand(room.getId()));
         this.addRoomBooksLink(roomResource, REL_BOOKS, room.getId());
         this.addRoomShelvesLink(roomResource, REL_SHELVES, room.getId());
         return roomResource;
@@ -147,23 +197,16 @@ public class RoomRestApiController {
 
     private EntityModel<RoomDTO> resourceAngular(RoomDTO room) {
         EntityModel<RoomDTO> roomDTOResource = EntityModel.of(room);
-        roomDTOResource.add(linkTo(
-                methodOn(RoomRestApiController.class)
-                        .getRoom(room.getId()))
-                .withSelfRel());
+        roomDTOResource.add(SELF_LINK.expand(room.getId()));
         return roomDTOResource;
     }
 
     private void addRoomBooksLink(EntityModel<Room> resources, String rel, Integer id) {
-        resources.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByRoom(id))
-                .withRel(rel));
+        resources.add(BOOKS_LINK.expand(id).withRel(rel));
     }
 
     private void addRoomShelvesLink(EntityModel<Room> resources, String rel, Integer id) {
-        resources.add(linkTo(methodOn(ShelfRestApiController.class)
-                .getShelvesByRoom(id))
-                .withRel(rel));
+        resources.add(SHELVES_LINK.expand(id).withRel(rel));
     }
 
     private void addRoomLink(CollectionModel<EntityModel<Room>> resources, String rel) {
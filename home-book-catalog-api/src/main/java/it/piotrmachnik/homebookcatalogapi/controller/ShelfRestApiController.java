@@ -1,9 +1,15 @@
 package it.piotrmachnik.homebookcatalogapi.controller;
 
 import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Room;
 import it.piotrmachnik.homebookcatalogapi.model.Shelf;
-import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.ShelfRepository;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogReadModel;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogSnapshot;
 import it.piotrmachnik.homebookcatalogapi.service.ShelfService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
@@ -20,23 +26,31 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/shelves", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@CatalogETag({Shelf.class, Room.class, Book.class})
+@RequestMapping(value = "/api/shelves", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class ShelfRestApiController {
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOKS = "books";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(ShelfRestApiController.class).getShelf(id));
+    private static final LinkTemplate BOOKS_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByShelf(id, null, null));
     @Autowired
     private ShelfRepository shelfRepository;
 
     private ShelfService shelfService;
+    private CatalogReadModel catalogReadModel;
 
-    public ShelfRestApiController(ShelfService shelfService) {
+    public ShelfRestApiController(ShelfService shelfService, CatalogReadModel catalogReadModel) {
         this.shelfService = shelfService;
+        this.catalogReadModel = catalogReadModel;
     }
 
     @GetMapping(path = "/{id}")
     public ResponseEntity<EntityModel<Shelf>> getShelf(@PathVariable Integer id) {
-        return this.shelfRepository.findById(id).map(this::resource)
+        return this.catalogReadModel.read(snapshot -> snapshot.shelf(id), () -> this.shelfRepository.findById(id))
+                .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -44,7 +58,8 @@ public class ShelfRestApiController {
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(path = "/{id}", produces = ApiVersion.V2_FOR_ANGULAR)
     public ResponseEntity<EntityModel<Shelf>> getShelfForAngular(@PathVariable Integer id) {
-        return this.shelfRepository.findById(id).map(this::resource)
+        return this.catalogReadModel.read(snapshot -> snapshot.shelf(id), () -> this.shelfRepository.findById(id))
+                .map(this::resource)
                 .map(this::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -52,7 +67,8 @@ public class ShelfRestApiController {
     @GetMapping
     public CollectionModel<EntityModel<Shelf>> getShelves() {
         CollectionModel<EntityModel<Shelf>> resources = CollectionModel.of(
-                this.shelfRepository.findAll().stream().map(this::resource)
+                this.catalogReadModel.read(CatalogSnapshot::shelves, this.shelfRepository::findAll).stream()
+                        .map(this::resource)
                         .collect(Collectors.toList()));
         addShelfLink(resources, REL_SELF);
         return resources;
@@ -60,15 +76,15 @@ public class ShelfRestApiController {
 
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(produces = ApiVersion.V2_FOR_ANGULAR)
-    public List<ShelfDTO> getShelvesForAngular() {
-        List<ShelfDTO> resources = this.shelfService.getShelvesForAngular();
-        return resources;
+    public List<ShelfRowDTO> getShelvesForAngular() {
+        return this.catalogReadModel.read(CatalogSnapshot::shelfRows, this.shelfService::getShelvesForAngular);
     }
 
     @GetMapping(params = "idRoom")
     public CollectionModel<EntityModel<Shelf>> getShelvesByRoom(@RequestParam("idRoom") Integer idRoom) {
         CollectionModel<EntityModel<Shelf>> resources = CollectionModel.of(
-                this.shelfRepository.findByRoomId(idRoom).stream().map(this::resource)
+                this.catalogReadModel.read(snapshot -> snapshot.shelvesByRoom(idRoom),
+                        () -> this.shelfRepository.findByRoomId(idRoom)).stream().map(this::resource)
                         .collect(Collectors.toList()));
         addShelfLink(resources, REL_SELF);
         return resources;
@@ -77,7 +93,8 @@ public class ShelfRestApiController {
     @CrossOrigin(origins = "http://localhost:4200")
     @GetMapping(params = "idRoom", produces = ApiVersion.V2_FOR_ANGULAR)
     public List<EntityModel<Shelf>> getShelvesByRoomForAngular(@RequestParam("idRoom") Integer idRoom) {
-        List<EntityModel<Shelf>> resources = this.shelfRepository.findByRoomId(idRoom).stream().map(this::resource)
+        List<EntityModel<Shelf>> resources = this.catalogReadModel.read(snapshot -> snapshot.shelvesByRoom(idRoom),
+                        () -> this.shelfRepository.findByRoomId(idRoom)).stream().map(this::resource)
                         .collect(Collectors.toList());
         return resources;
     }
@@ -154,6 +171,22 @@ public class ShelfRestApiController {
         this.shelfService.updateShelf(id, newPartialShelf);
     }
 
+    @PostMapping(path = "/{id}/merge")
+    public RelocationResultDTO mergeShelf(@PathVariable Integer id, @RequestParam("into") Integer idInto) {
+        return this.shelfService.mergeShelf(id, idInto);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @PostMapping(path = "/{id}/merge", produces = ApiVersion.V2_FOR_ANGULAR)
+    public RelocationResultDTO mergeShelfForAngular(@PathVariable Integer id, @RequestParam("into") Integer idInto) {
+        return this.shelfService.mergeShelf(id, idInto);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
     private ResponseEntity<String> notFound() {
         return ResponseEntity.notFound().build();
     }
@@ -164,18 +197,13 @@ public class ShelfRestApiController {
 
     private EntityModel<Shelf> resource(Shelf shelf) {
         EntityModel<Shelf> shelfResource = EntityModel.of(shelf);
-        shelfResource.add(linkTo(
-                methodOn(ShelfRestApiController.class)
-                        .getShelf(shelf.getId()))
-                .withSelfRel());
+        shelfResource.add(SELF_LINK.expand(shelf.getId()));
         addShelfBooksLink(shelfResource, REL_BOOKS, shelf.getId());
         return shelfResource;
     }
 
     private void addShelfBooksLink(EntityModel<Shelf> resources, String rel, Integer id) {
-        resources.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByShelf(id))
-                .withRel(rel));
+        resources.add(BOOKS_LINK.expand(id).withRel(rel));
     }
 
     private void addShelfLink(CollectionModel<EntityModel<Shelf>> resources, String rel) {
@@ -0,0 +1,35 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.CatalogStatsDTO;
+import it.piotrmachnik.homebookcatalogapi.service.CatalogStatsService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@CatalogETag({Book.class, Status.class, Shelf.class, Room.class, Author.class, Publisher.class, StatusType.class})
+@RequestMapping(value = "/api/stats", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
+public class StatsRestApiController {
+
+    private CatalogStatsService catalogStatsService;
+
+    public StatsRestApiController(CatalogStatsService catalogStatsService) {
+        this.catalogStatsService = catalogStatsService;
+    }
+
+    @GetMapping
+    public CatalogStatsDTO getStats() {
+        return this.catalogStatsService.getStats();
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(produces = ApiVersion.V2_FOR_ANGULAR)
+    public CatalogStatsDTO getStatsForAngular() {
+        return this.catalogStatsService.getStats();
+    }
+}
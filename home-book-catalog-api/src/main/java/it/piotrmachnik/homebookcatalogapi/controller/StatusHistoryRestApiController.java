@@ -0,0 +1,67 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogETag;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.StatusType;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusChangeDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusDurationDTO;
+import it.piotrmachnik.homebookcatalogapi.service.StatusHistoryService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+@RestController
+@CatalogETag({Book.class, StatusType.class})
+@RequestMapping(value = "/api/status-history", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
+public class StatusHistoryRestApiController {
+
+    private StatusHistoryService statusHistoryService;
+
+    public StatusHistoryRestApiController(StatusHistoryService statusHistoryService) {
+        this.statusHistoryService = statusHistoryService;
+    }
+
+    @GetMapping
+    public List<StatusChangeDTO> getStatusChanges(@RequestParam("from") Instant from, @RequestParam("to") Instant to) {
+        return this.statusHistoryService.getStatusChanges(Date.from(from), Date.from(to));
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<StatusChangeDTO> getStatusChangesForAngular(@RequestParam("from") Instant from,
+                                                            @RequestParam("to") Instant to) {
+        return this.statusHistoryService.getStatusChanges(Date.from(from), Date.from(to));
+    }
+
+    @GetMapping(path = "/books/{idBook}")
+    public List<StatusChangeDTO> getStatusHistory(@PathVariable Integer idBook) {
+        return this.statusHistoryService.getStatusHistory(idBook);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/books/{idBook}", produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<StatusChangeDTO> getStatusHistoryForAngular(@PathVariable Integer idBook) {
+        return this.statusHistoryService.getStatusHistory(idBook);
+    }
+
+    @GetMapping(path = "/books/{idBook}/durations")
+    public List<StatusDurationDTO> getStatusDurations(@PathVariable Integer idBook) {
+        return this.statusHistoryService.getStatusDurations(idBook);
+    }
+
+    @CrossOrigin(origins = "http://localhost:4200")
+    @GetMapping(path = "/books/{idBook}/durations", produces = ApiVersion.V2_FOR_ANGULAR)
+    public List<StatusDurationDTO> getStatusDurationsForAngular(@PathVariable Integer idBook) {
+        return this.statusHistoryService.getStatusDurations(idBook);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
@@ -18,11 +18,15 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/statuses", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@RequestMapping(value = "/api/statuses", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class StatusRestApiController {
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOK = "book";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(StatusRestApiController.class).getStatus(id));
+    private static final LinkTemplate BOOK_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBookByStatus(id, null));
 
     @Autowired
     private StatusRepository statusRepository;
@@ -96,13 +100,8 @@ public class StatusRestApiController {
 
     private EntityModel<Status> resource(Status status) {
         EntityModel<Status> statusResource = EntityModel.of(status);
-        statusResource.add(linkTo(
-                methodOn(StatusRestApiController.class)
-                        .getStatus(status.getId()))
-                .withSelfRel());
-        statusResource.add(linkTo(methodOn(BookRestApiController.class)
-                        .getBookByStatus(status.getId()))
-                .withRel(REL_BOOK));
+        statusResource.add(SELF_LINK.expand(status.getId()));
+        statusResource.add(BOOK_LINK.expand(status.getId()).withRel(REL_BOOK));
         return statusResource;
     }
 
@@ -20,11 +20,15 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequestMapping(value = "/api/statustypes", produces = {ApiVersion.V1_HAL_JSON, MediaType.ALL_VALUE})
+@RequestMapping(value = "/api/statustypes", produces = {ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, MediaType.ALL_VALUE})
 public class StatusTypeRestApiController {
 
     private static final String REL_SELF = "self";
     private static final String REL_BOOKS = "books";
+    private static final LinkTemplate SELF_LINK =
+            LinkTemplate.of(id -> methodOn(StatusTypeRestApiController.class).getStatusType(id));
+    private static final LinkTemplate BOOKS_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByStatusType(id, null, null));
     @Autowired
     private StatusTypeRepository statusTypeRepository;
 
@@ -130,25 +134,15 @@ public class StatusTypeRestApiController {
 
     private EntityModel<StatusType> resource(StatusType statusType) {
         EntityModel<StatusType> statusTypeResource = EntityModel.of(statusType);
-        statusTypeResource.add(linkTo(
-                methodOn(StatusTypeRestApiController.class)
-                        .getStatusType(statusType.getId()))
-                .withSelfRel());
-        statusTypeResource.add(linkTo(methodOn(BookRestApiController.class)
-                        .getBooksByStatusType(statusType.getId()))
-                .withRel(REL_BOOKS));
+        statusTypeResource.add(SELF_LINK.expand(statusType.getId()));
+        statusTypeResource.add(BOOKS_LINK.expand(statusType.getId()).withRel(REL_BOOKS));
         return statusTypeResource;
     }
 
     private EntityModel<StatusTypeDTO> resourceAngular(StatusTypeDTO statusType) {
         EntityModel<StatusTypeDTO> statusTypeResource = EntityModel.of(statusType);
-        statusTypeResource.add(linkTo(
-                methodOn(StatusTypeRestApiController.class)
-                        .getStatusType(statusType.getId()))
-                .withSelfRel());
-        statusTypeResource.add(linkTo(methodOn(BookRestApiController.class)
-                .getBooksByStatusType(statusType.getId()))
-                .withRel(REL_BOOKS));
+        statusTypeResource.add(SELF_LINK.expand(statusType.getId()));
+        statusTypeResource.add(BOOKS_LINK.expand(statusType.getId()).withRel(REL_BOOKS));
         return statusTypeResource;
     }
 
@@ -0,0 +1,45 @@
+package it.piotrmachnik.homebookcatalogapi.event;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.repository.BookCounterRepository;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+import java.util.List;
+
+public class BookCounterListener {
+
+    private final BookCounterRepository bookCounterRepository;
+
+    public BookCounterListener(BookCounterRepository bookCounterRepository) {
+        this.bookCounterRepository = bookCounterRepository;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        if (entity instanceof Book book) {
+            this.bookCounterRepository.add(List.of(BookCounterRepository.References.of(book)), 1);
+        }
+    }
+
+    // The stored row is locked and read, so the counters move from the database, not from the session.
+    @PreUpdate
+    public void updating(Object entity) {
+        if (entity instanceof Book book) {
+            this.bookCounterRepository.lockReferences(book.getId()).ifPresent(before ->
+                    this.bookCounterRepository.replace(before, BookCounterRepository.References.of(book)));
+        } else if (entity instanceof Shelf shelf) {
+            this.bookCounterRepository.moveShelf(shelf.getId(), shelf.getRoom() == null ? null : shelf.getRoom().getId());
+        }
+    }
+
+    @PreRemove
+    public void deleting(Object entity) {
+        if (entity instanceof Book book) {
+            this.bookCounterRepository.lockReferences(book.getId()).ifPresent(before ->
+                    this.bookCounterRepository.add(List.of(before), -1));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package it.piotrmachnik.homebookcatalogapi.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class CatalogChangeEvent {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Class<?> type;
+    private final Kind kind;
+    private final Collection<Integer> ids;
+
+    public CatalogChangeEvent(Class<?> type, Kind kind, Integer id) {
+        this(type, kind, List.of(id));
+    }
+
+    public boolean isAbout(Class<?> type) {
+        return this.type == type;
+    }
+}
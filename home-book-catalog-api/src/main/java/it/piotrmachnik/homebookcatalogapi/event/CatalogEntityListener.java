@@ -0,0 +1,38 @@
+package it.piotrmachnik.homebookcatalogapi.event;
+
+import it.piotrmachnik.homebookcatalogapi.model.CatalogEntity;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+public class CatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void created(CatalogEntity entity) {
+        publish(entity, CatalogChangeEvent.Kind.CREATED);
+    }
+
+    @PostUpdate
+    public void updated(CatalogEntity entity) {
+        publish(entity, CatalogChangeEvent.Kind.UPDATED);
+    }
+
+    @PostRemove
+    public void deleted(CatalogEntity entity) {
+        publish(entity, CatalogChangeEvent.Kind.DELETED);
+    }
+
+    private void publish(CatalogEntity entity, CatalogChangeEvent.Kind kind) {
+        this.eventPublisher.publishEvent(
+                new CatalogChangeEvent(Hibernate.getClass(entity), kind, entity.getId()));
+    }
+}
@@ -0,0 +1,45 @@
+package it.piotrmachnik.homebookcatalogapi.event;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CatalogVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long version(Class<?> type) {
+        AtomicLong version = this.versions.get(type);
+        return version == null ? 0 : version.get();
+    }
+
+    public String etag(String variant, Class<?>... types) {
+        long version = 0;
+        for (Class<?> type : types) {
+            version += version(type);
+        }
+        return "W/\"" + variant + "-" + this.epoch + "-" + version + "\"";
+    }
+
+    // Bumped when the change is published and again after commit, so a read racing either side of the
+    // commit never keeps a tag that outlives the data it was computed for.
+    @EventListener
+    public void onCatalogChange(CatalogChangeEvent event) {
+        bump(event.getType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChangeCommitted(CatalogChangeEvent event) {
+        bump(event.getType());
+    }
+
+    private void bump(Class<?> type) {
+        this.versions.computeIfAbsent(type, key -> new AtomicLong()).incrementAndGet();
+    }
+}
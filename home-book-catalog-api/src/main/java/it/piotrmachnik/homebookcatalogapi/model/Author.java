@@ -1,17 +1,23 @@
 package it.piotrmachnik.homebookcatalogapi.model;
 
+import it.piotrmachnik.homebookcatalogapi.event.CatalogEntityListener;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity(name = "Author")
+@EntityListeners(CatalogEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "AUTHOR")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Getter
 @Setter
-public class Author {
+public class Author implements CatalogEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
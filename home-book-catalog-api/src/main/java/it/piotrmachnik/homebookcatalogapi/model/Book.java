@@ -1,17 +1,34 @@
 package it.piotrmachnik.homebookcatalogapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import it.piotrmachnik.homebookcatalogapi.event.BookCounterListener;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogEntityListener;
 import lombok.*;
 
 import javax.persistence.*;
 
 @Entity(name = "Book")
+@EntityListeners({CatalogEntityListener.class, BookCounterListener.class})
 @Table(name = "BOOK")
+@NamedEntityGraph(name = Book.GRAPH_FULL,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode("publisher"),
+                @NamedAttributeNode(value = "shelf", subgraph = "shelf"),
+                @NamedAttributeNode(value = "status", subgraph = "status")},
+        subgraphs = {
+                @NamedSubgraph(name = "shelf", attributeNodes = @NamedAttributeNode("room")),
+                @NamedSubgraph(name = "status", attributeNodes = @NamedAttributeNode("statusType"))})
+@NamedEntityGraph(name = Book.GRAPH_SUMMARY)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
-public class Book {
+public class Book implements CatalogEntity {
+
+    public static final String GRAPH_FULL = "Book.full";
+    public static final String GRAPH_SUMMARY = "Book.summary";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,10 +42,17 @@ public class Book {
     @JoinColumn(name = "id_author")
     private Author author;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    // The replaced status lives on in STATUS_HISTORY, so its row goes with it.
+    @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "id_status")
     private Status status;
 
+    // Copy of status.statusType so listings and filters read the book row alone; kept in step on every save.
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_status_type")
+    private StatusType statusType;
+
     @ManyToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinColumn(name = "id_publisher")
     private Publisher publisher;
@@ -41,4 +65,10 @@ public class Book {
         this.name = name;
         this.status = status;
     }
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void copyStatusType() {
+        this.statusType = this.status == null ? null : this.status.getStatusType();
+    }
+}
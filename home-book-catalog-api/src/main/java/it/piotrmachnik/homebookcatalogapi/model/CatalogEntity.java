@@ -0,0 +1,5 @@
+package it.piotrmachnik.homebookcatalogapi.model;
+
+public interface CatalogEntity {
+    Integer getId();
+}
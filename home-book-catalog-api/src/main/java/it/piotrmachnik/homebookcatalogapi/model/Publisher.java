@@ -1,17 +1,23 @@
 package it.piotrmachnik.homebookcatalogapi.model;
 
+import it.piotrmachnik.homebookcatalogapi.event.CatalogEntityListener;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity(name = "Publisher")
+@EntityListeners(CatalogEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "PUBLISHER")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
-public class Publisher {
+public class Publisher implements CatalogEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,17 +1,24 @@
 package it.piotrmachnik.homebookcatalogapi.model;
 
+import it.piotrmachnik.homebookcatalogapi.event.BookCounterListener;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogEntityListener;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity(name = "Shelf")
+@EntityListeners({CatalogEntityListener.class, BookCounterListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "SHELF")
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
-public class Shelf{
+public class Shelf implements CatalogEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,11 +1,13 @@
 package it.piotrmachnik.homebookcatalogapi.model;
 
+import it.piotrmachnik.homebookcatalogapi.event.CatalogEntityListener;
 import lombok.*;
 
 import javax.persistence.*;
 import java.util.Date;
 
 @Entity(name = "Status")
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "STATUS")
 @Builder
 @ToString
@@ -13,7 +15,7 @@ import java.util.Date;
 @AllArgsConstructor
 @Getter
 @Setter
-public class Status {
+public class Status implements CatalogEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
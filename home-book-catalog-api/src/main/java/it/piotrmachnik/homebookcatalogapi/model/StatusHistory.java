@@ -0,0 +1,44 @@
+package it.piotrmachnik.homebookcatalogapi.model;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.util.Date;
+
+@Entity(name = "StatusHistory")
+@Immutable
+@Table(name = "STATUS_HISTORY")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class StatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_status_history")
+    private Long id;
+
+    @Column(name = "id_book", nullable = false, updatable = false)
+    private Integer idBook;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_status_type", updatable = false)
+    private StatusType statusType;
+
+    @Column(name = "date_from", nullable = false, updatable = false)
+    private Date dateFrom;
+
+    @Column(name = "comment", updatable = false)
+    private String comment;
+
+    public static StatusHistory of(Book book) {
+        return StatusHistory.builder()
+                .idBook(book.getId())
+                .statusType(book.getStatus().getStatusType())
+                .dateFrom(book.getStatus().getDateUp())
+                .comment(book.getStatus().getComment())
+                .build();
+    }
+}
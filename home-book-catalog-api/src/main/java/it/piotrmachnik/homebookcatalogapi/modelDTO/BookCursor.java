@@ -0,0 +1,39 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class BookCursor {
+
+    private static final String KEY_PREFIX = "~";
+
+    private Integer id;
+    private String key;
+
+    public static BookCursor of(Book book, BookSort sort) {
+        return new BookCursor(book.getId(), sort.isById() ? null : book.getName());
+    }
+
+    public static BookCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            String key = decoded.substring(separator + 1);
+            return new BookCursor(Integer.valueOf(decoded.substring(0, separator)),
+                    key.startsWith(KEY_PREFIX) ? key.substring(KEY_PREFIX.length()) : null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String decoded = this.id + ":" + (this.key == null ? "" : KEY_PREFIX + this.key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+}
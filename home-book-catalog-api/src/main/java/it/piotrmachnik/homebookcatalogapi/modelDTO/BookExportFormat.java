@@ -0,0 +1,28 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum BookExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    BookExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return this.mediaType;
+    }
+
+    public static BookExportFormat parse(String value) {
+        try {
+            return BookExportFormat.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor
+public class BookFieldSet {
+
+    public static final List<String> PATHS = List.of(
+            "id", "name",
+            "author.id", "author.name",
+            "publisher.id", "publisher.name",
+            "shelf.id", "shelf.letter", "shelf.number", "shelf.room.id", "shelf.room.name",
+            "status.id", "status.dateUp", "status.comment", "status.statusType.id", "status.statusType.name");
+
+    private static final List<String> DEFAULT_FIELDS = List.of("id", "name", "author", "publisher", "shelf", "status");
+    private static final String ID = ".id";
+
+    @Getter
+    private String fields;
+    @Getter
+    private boolean compact;
+    private List<String> paths;
+
+    public void setFields(String fields) {
+        this.fields = fields;
+        this.paths = null;
+    }
+
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+        this.paths = null;
+    }
+
+    public boolean isSparse() {
+        return this.compact || (this.fields != null && !this.fields.isBlank());
+    }
+
+    public List<String> getPaths() {
+        if (this.paths == null) {
+            this.paths = resolvePaths();
+        }
+        return this.paths;
+    }
+
+    private List<String> resolvePaths() {
+        List<String> requested = this.fields == null || this.fields.isBlank() ? DEFAULT_FIELDS
+                : Arrays.stream(this.fields.split(",")).map(String::trim).filter(field -> !field.isEmpty())
+                .collect(Collectors.toList());
+        Set<String> selected = new HashSet<>();
+        requested.forEach(field -> selected.addAll(resolve(field)));
+        return PATHS.stream().filter(selected::contains).collect(Collectors.toList());
+    }
+
+    public Map<String, Object> render(Map<String, Object> values) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String path : getPaths()) {
+            if (this.compact) {
+                row.put(path.endsWith(ID) ? path.substring(0, path.length() - ID.length()) : path, values.get(path));
+            } else {
+                put(row, path.split("\\."), values.get(path));
+            }
+        }
+        if (!this.compact) {
+            row.replaceAll((field, value) -> nullIfEmpty(value));
+        }
+        return row;
+    }
+
+    private List<String> resolve(String field) {
+        List<String> paths = PATHS.stream().filter(path -> path.equals(field) || path.startsWith(field + "."))
+                .collect(Collectors.toList());
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("Unknown book field: " + field);
+        }
+        if (!this.compact || paths.size() == 1 && field.indexOf('.') < 0) {
+            return paths;
+        }
+        String association = field.indexOf('.') < 0 ? field : field.substring(0, field.indexOf('.'));
+        if (!paths.contains(association + ID) || !field.equals(association) && !field.equals(association + ID)) {
+            throw new IllegalArgumentException("Compact books only carry the id of " + association);
+        }
+        return List.of(association + ID);
+    }
+
+    // A missing association comes back as a row of nulls; render it as null, like the full representation does.
+    @SuppressWarnings("unchecked")
+    private static Object nullIfEmpty(Object value) {
+        if (!(value instanceof Map)) {
+            return value;
+        }
+        Map<String, Object> association = (Map<String, Object>) value;
+        association.replaceAll((field, nested) -> nullIfEmpty(nested));
+        return association.values().stream().allMatch(Objects::isNull) ? null : association;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String[] segments, Object value) {
+        Map<String, Object> parent = row;
+        for (int i = 0; i < segments.length - 1; i++) {
+            parent = (Map<String, Object>) parent.computeIfAbsent(segments[i], segment -> new LinkedHashMap<>());
+        }
+        parent.put(segments[segments.length - 1], value);
+    }
+}
@@ -0,0 +1,20 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookFilter {
+
+    private List<Integer> idAuthor;
+    private List<Integer> idPublisher;
+    private List<Integer> idShelf;
+    private List<Integer> idRoom;
+    private List<Integer> idStatusType;
+    private String name;
+}
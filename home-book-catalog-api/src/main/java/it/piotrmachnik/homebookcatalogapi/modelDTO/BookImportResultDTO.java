@@ -0,0 +1,27 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookImportResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private Integer index;
+    private String result;
+    private Integer id;
+    private String message;
+
+    public static BookImportResultDTO created(int index, Integer id) {
+        return BookImportResultDTO.builder().index(index).result(CREATED).id(id).build();
+    }
+
+    public static BookImportResultDTO failed(int index, String message) {
+        return BookImportResultDTO.builder().index(index).result(FAILED).message(message).build();
+    }
+}
@@ -0,0 +1,42 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookPageRequest {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 500;
+
+    private Integer size;
+    private String after;
+    private Integer page;
+    private String sort;
+
+    public boolean isPaged() {
+        return this.size != null || this.after != null || this.page != null;
+    }
+
+    public boolean isOffset() {
+        return this.page != null && this.after == null;
+    }
+
+    public int getLimit() {
+        if (this.size == null || this.size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(this.size, MAX_SIZE);
+    }
+
+    public BookSort getBookSort() {
+        return BookSort.parse(this.sort);
+    }
+
+    public BookCursor getCursor() {
+        return this.after == null || this.after.isEmpty() ? null : BookCursor.decode(this.after);
+    }
+}
@@ -0,0 +1,16 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookRelocationDTO {
+    private List<Integer> ids;
+    private Integer idFromShelf;
+    private Integer idShelf;
+}
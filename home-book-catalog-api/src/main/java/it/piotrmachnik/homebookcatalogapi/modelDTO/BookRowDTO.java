@@ -0,0 +1,33 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+
+public record BookRowDTO(Integer id, String name, NamedDTO author, NamedDTO publisher, ShelfRow shelf,
+                         StatusRow status) {
+
+    public BookRowDTO(Integer id, String name, Integer idAuthor, String authorName, Integer idPublisher,
+                      String publisherName, Integer idShelf, Integer idRoom, String roomName, Integer idStatusType,
+                      String statusTypeName) {
+        this(id, name, NamedDTO.of(idAuthor, authorName), NamedDTO.of(idPublisher, publisherName),
+                idShelf == null ? null : new ShelfRow(idShelf, NamedDTO.of(idRoom, roomName)),
+                idStatusType == null ? null : new StatusRow(NamedDTO.of(idStatusType, statusTypeName)));
+    }
+
+    public static BookRowDTO of(Book book) {
+        return new BookRowDTO(book.getId(), book.getName(),
+                book.getAuthor() == null ? null : new NamedDTO(book.getAuthor().getId(), book.getAuthor().getName()),
+                book.getPublisher() == null ? null
+                        : new NamedDTO(book.getPublisher().getId(), book.getPublisher().getName()),
+                book.getShelf() == null ? null : new ShelfRow(book.getShelf().getId(), book.getShelf().getRoom() == null
+                        ? null : new NamedDTO(book.getShelf().getRoom().getId(), book.getShelf().getRoom().getName())),
+                book.getStatus() == null || book.getStatus().getStatusType() == null ? null
+                        : new StatusRow(new NamedDTO(book.getStatus().getStatusType().getId(),
+                        book.getStatus().getStatusType().getName())));
+    }
+
+    public record ShelfRow(Integer id, NamedDTO room) {
+    }
+
+    public record StatusRow(NamedDTO statusType) {
+    }
+}
@@ -0,0 +1,19 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookSearchHitDTO {
+    private Integer id;
+    private Float score;
+    private String name;
+    private String author;
+    private String publisher;
+    private Map<String, String> highlights;
+}
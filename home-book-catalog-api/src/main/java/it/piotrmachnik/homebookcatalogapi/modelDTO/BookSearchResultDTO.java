@@ -0,0 +1,18 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BookSearchResultDTO {
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Long total;
+    private List<BookSearchHitDTO> hits;
+}
@@ -0,0 +1,18 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BookSlice<T> {
+
+    private List<T> content;
+    private BookCursor next;
+
+    public boolean hasNext() {
+        return this.next != null;
+    }
+}
@@ -0,0 +1,43 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+@Getter
+@AllArgsConstructor
+public class BookSort {
+
+    public static final String PROPERTY_ID = "id";
+    public static final String PROPERTY_NAME = "name";
+
+    private static final String DESC = "desc";
+
+    private String property;
+    private Sort.Direction direction;
+
+    public static BookSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return new BookSort(PROPERTY_ID, Sort.Direction.ASC);
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!Arrays.asList(PROPERTY_ID, PROPERTY_NAME).contains(property)) {
+            throw new IllegalArgumentException("Books can only be sorted by id or name");
+        }
+        Sort.Direction direction = parts.length > 1 && DESC.equalsIgnoreCase(parts[1].trim())
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new BookSort(property, direction);
+    }
+
+    public boolean isById() {
+        return PROPERTY_ID.equals(this.property);
+    }
+
+    public Sort toSort() {
+        Sort sort = Sort.by(this.direction, this.property);
+        return isById() ? sort : sort.and(Sort.by(this.direction, PROPERTY_ID));
+    }
+}
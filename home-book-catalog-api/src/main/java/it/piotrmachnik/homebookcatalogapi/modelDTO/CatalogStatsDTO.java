@@ -0,0 +1,26 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import java.util.List;
+
+public record CatalogStatsDTO(long books, List<NamedCountDTO> rooms, List<ShelfRowDTO> shelves,
+                              List<NamedCountDTO> statusTypes, List<NamedCountDTO> authors,
+                              List<NamedCountDTO> publishers, ShelfFill shelfFill, List<MonthRow> booksAddedPerMonth) {
+
+    public record ShelfFill(long shelves, long emptyShelves, long minBooks, long maxBooks, double averageBooks) {
+
+        public static ShelfFill of(List<ShelfRowDTO> shelves) {
+            return new ShelfFill(shelves.size(),
+                    shelves.stream().filter(shelf -> shelf.noBooks() == 0).count(),
+                    shelves.stream().mapToLong(ShelfRowDTO::noBooks).min().orElse(0),
+                    shelves.stream().mapToLong(ShelfRowDTO::noBooks).max().orElse(0),
+                    shelves.stream().mapToLong(ShelfRowDTO::noBooks).average().orElse(0));
+        }
+    }
+
+    public record MonthRow(int year, int month, long books) {
+
+        public static MonthRow of(MonthCount count) {
+            return new MonthRow(count.getAddedYear(), count.getAddedMonth(), count.getBooks());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public interface IdCount {
+
+    Integer getId();
+
+    Long getCount();
+
+    static Map<Integer, Long> toMap(Collection<IdCount> counts) {
+        Map<Integer, Long> countsById = new HashMap<>();
+        counts.forEach(count -> countsById.put(count.getId(), count.getCount()));
+        return countsById;
+    }
+}
@@ -0,0 +1,10 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+public interface MonthCount {
+
+    Integer getAddedYear();
+
+    Integer getAddedMonth();
+
+    Long getBooks();
+}
@@ -0,0 +1,13 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class NameSuggestionDTO {
+    private Integer id;
+    private String name;
+}
@@ -0,0 +1,4 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+public record NamedCountDTO(Integer id, String name, Long noBooks) {
+}
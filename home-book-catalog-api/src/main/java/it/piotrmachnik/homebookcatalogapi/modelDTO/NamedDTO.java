@@ -0,0 +1,8 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+public record NamedDTO(Integer id, String name) {
+
+    public static NamedDTO of(Integer id, String name) {
+        return id == null ? null : new NamedDTO(id, name);
+    }
+}
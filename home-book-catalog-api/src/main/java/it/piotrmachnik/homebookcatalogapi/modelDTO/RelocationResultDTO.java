@@ -0,0 +1,13 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import lombok.*;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RelocationResultDTO {
+    private int books;
+    private int shelves;
+}
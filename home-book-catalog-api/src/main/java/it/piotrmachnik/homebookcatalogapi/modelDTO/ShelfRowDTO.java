@@ -0,0 +1,8 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+public record ShelfRowDTO(Integer id, String letter, Integer number, NamedDTO room, Long noBooks) {
+
+    public ShelfRowDTO(Integer id, String letter, Integer number, Integer idRoom, String roomName, Long noBooks) {
+        this(id, letter, number, NamedDTO.of(idRoom, roomName), noBooks);
+    }
+}
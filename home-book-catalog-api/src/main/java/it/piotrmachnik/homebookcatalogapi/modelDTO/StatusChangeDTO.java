@@ -0,0 +1,11 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+import java.util.Date;
+
+public record StatusChangeDTO(Long id, Integer idBook, NamedDTO statusType, Date dateFrom, String comment) {
+
+    public StatusChangeDTO(Long id, Integer idBook, Integer idStatusType, String statusTypeName, Date dateFrom,
+                           String comment) {
+        this(id, idBook, NamedDTO.of(idStatusType, statusTypeName), dateFrom, comment);
+    }
+}
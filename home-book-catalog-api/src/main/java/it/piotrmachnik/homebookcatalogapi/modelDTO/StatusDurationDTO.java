@@ -0,0 +1,4 @@
+package it.piotrmachnik.homebookcatalogapi.modelDTO;
+
+public record StatusDurationDTO(NamedDTO statusType, long millis) {
+}
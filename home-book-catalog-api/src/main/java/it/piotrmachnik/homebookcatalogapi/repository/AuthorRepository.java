@@ -1,13 +1,33 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
 import it.piotrmachnik.homebookcatalogapi.model.Author;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
+@Transactional(readOnly = true)
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Collection<Author> findAuthorsByName(String name);
+
+    Collection<Author> findByNameIn(Collection<String> names);
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO(a.id, a.name, count(b)) " +
+            "from Author a left join Book b on b.author = a group by a.id, a.name order by a.id")
+    List<NamedCountDTO> countBooksPerAuthor();
+
+    @Query(value = "select id_author as id, no_books as count from author", nativeQuery = true)
+    Collection<IdCount> findBookCounters();
 }
@@ -0,0 +1,106 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Status;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+@Repository
+public class BookBatchRepository {
+
+    private static final String INSERT_STATUS =
+            "insert into status (id_status_type, date_up, comment) values (?, ?, ?)";
+    private static final String INSERT_BOOK =
+            "insert into book (name, id_author, id_publisher, id_shelf, id_status, id_status_type) values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_STATUS_HISTORY =
+            "insert into status_history (id_book, id_status_type, date_from, comment) values (?, ?, ?, ?)";
+
+    private JdbcTemplate jdbcTemplate;
+    private BookCounterRepository bookCounterRepository;
+
+    public BookBatchRepository(JdbcTemplate jdbcTemplate, BookCounterRepository bookCounterRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookCounterRepository = bookCounterRepository;
+    }
+
+    public void insertBooks(List<Book> books) {
+        insert(INSERT_STATUS, books, (statement, book) -> {
+            Status status = book.getStatus();
+            setInteger(statement, 1, status.getStatusType().getId());
+            setTimestamp(statement, 2, status.getDateUp());
+            setString(statement, 3, status.getComment());
+        }, (book, id) -> book.getStatus().setId(id));
+        insert(INSERT_BOOK, books, (statement, book) -> {
+            setString(statement, 1, book.getName());
+            setInteger(statement, 2, book.getAuthor() == null ? null : book.getAuthor().getId());
+            setInteger(statement, 3, book.getPublisher() == null ? null : book.getPublisher().getId());
+            setInteger(statement, 4, book.getShelf() == null ? null : book.getShelf().getId());
+            setInteger(statement, 5, book.getStatus().getId());
+            setInteger(statement, 6, book.getStatus().getStatusType().getId());
+        }, Book::setId);
+        this.jdbcTemplate.batchUpdate(INSERT_STATUS_HISTORY, books, books.size(), (statement, book) -> {
+            setInteger(statement, 1, book.getId());
+            setInteger(statement, 2, book.getStatus().getStatusType().getId());
+            setTimestamp(statement, 3, book.getStatus().getDateUp());
+            setString(statement, 4, book.getStatus().getComment());
+        });
+        this.bookCounterRepository.add(books.stream().map(BookCounterRepository.References::of)
+                .collect(Collectors.toList()), 1);
+    }
+
+    private void insert(String sql, List<Book> books, StatementSetter setter, BiConsumer<Book, Integer> idSetter) {
+        this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Book book : books) {
+                    setter.set(statement, book);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Book book : books) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for batched insert");
+                        }
+                        idSetter.accept(book, keys.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private static void setString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, java.util.Date value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, new Timestamp(value.getTime()));
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementSetter {
+        void set(PreparedStatement statement, Book book) throws SQLException;
+    }
+}
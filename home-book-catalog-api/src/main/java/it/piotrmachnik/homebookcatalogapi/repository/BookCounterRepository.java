@@ -0,0 +1,203 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+@Repository
+public class BookCounterRepository {
+
+    private static final String LOCK_BOOK =
+            "select id_author, id_publisher, id_shelf, id_status_type from book where id_book = ? for update";
+    private static final String LOCK_SHELF = "select id_room, no_books from shelf where id_shelf = ? for update";
+    private static final String LOCK_BOOKS =
+            "select id_book, id_shelf from book where id_book in (:ids) order by id_book for update";
+    private static final String LOCK_BOOKS_ON_SHELF =
+            "select id_book, id_shelf from book where id_shelf = ? order by id_book for update";
+    private static final String LOCK_ROOM = "select no_books from room where id_room = ? for update";
+    private static final String ADD_TO_ROOM_OF_SHELF =
+            "update room set no_books = no_books + ? where id_room = (select id_room from shelf where id_shelf = ?)";
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public BookCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void add(Collection<References> books, int sign) {
+        Deltas deltas = new Deltas();
+        books.forEach(book -> deltas.add(book, sign));
+        deltas.apply();
+    }
+
+    public void replace(References before, References after) {
+        if (!before.equals(after)) {
+            Deltas deltas = new Deltas();
+            deltas.add(before, -1);
+            deltas.add(after, 1);
+            deltas.apply();
+        }
+    }
+
+    public Optional<References> lockReferences(Integer idBook) {
+        return this.jdbcTemplate.query(LOCK_BOOK, (rs, row) -> new References(
+                rs.getObject(1, Integer.class), rs.getObject(2, Integer.class),
+                rs.getObject(3, Integer.class), rs.getObject(4, Integer.class)), idBook).stream().findFirst();
+    }
+
+    public Map<Integer, Integer> lockShelves(Collection<Integer> idsBook) {
+        Map<Integer, Integer> shelves = new LinkedHashMap<>();
+        this.namedParameterJdbcTemplate.query(LOCK_BOOKS, new MapSqlParameterSource("ids", idsBook), rs -> {
+            shelves.put(rs.getInt(1), rs.getObject(2, Integer.class));
+        });
+        return shelves;
+    }
+
+    public Map<Integer, Integer> lockShelvesOnShelf(Integer idShelf) {
+        Map<Integer, Integer> shelves = new LinkedHashMap<>();
+        this.jdbcTemplate.query(LOCK_BOOKS_ON_SHELF, rs -> {
+            shelves.put(rs.getInt(1), rs.getObject(2, Integer.class));
+        }, idShelf);
+        return shelves;
+    }
+
+    // The books keep their rooms' counts in step with their shelves'.
+    public void moveBooks(Map<Integer, Integer> shelvesByBook, Integer idShelf) {
+        Deltas deltas = new Deltas();
+        shelvesByBook.values().forEach(idFromShelf -> {
+            deltas.addToShelf(idFromShelf, -1);
+            deltas.addToShelf(idShelf, 1);
+        });
+        deltas.apply();
+    }
+
+    public void moveShelf(Integer idShelf, Integer idRoom) {
+        this.jdbcTemplate.query(LOCK_SHELF, rs -> {
+            moveRoomBooks(rs.getObject(1, Integer.class), idRoom, rs.getLong(2));
+        }, idShelf);
+    }
+
+    public void moveRoom(Integer idFromRoom, Integer idRoom) {
+        this.jdbcTemplate.query(LOCK_ROOM, rs -> {
+            moveRoomBooks(idFromRoom, idRoom, rs.getLong(1));
+        }, idFromRoom);
+    }
+
+    private void moveRoomBooks(Integer idFromRoom, Integer idRoom, long books) {
+        if (books != 0 && !Objects.equals(idFromRoom, idRoom)) {
+            Deltas deltas = new Deltas();
+            deltas.add(Counter.ROOM, idFromRoom, -books);
+            deltas.add(Counter.ROOM, idRoom, books);
+            deltas.apply();
+        }
+    }
+
+    public List<Integer> repair(Counter counter, int fromId, int toId) {
+        List<Integer> drifted = this.jdbcTemplate.queryForList("select " + counter.idColumn + " from " + counter.table +
+                " where " + counter.idColumn + " >= ? and " + counter.idColumn + " < ? " +
+                "and no_books <> (" + counter.count + ")", Integer.class, fromId, toId);
+        if (!drifted.isEmpty()) {
+            this.namedParameterJdbcTemplate.update("update " + counter.table + " set no_books = (" + counter.count +
+                    ") where " + counter.idColumn + " in (:ids)", new MapSqlParameterSource("ids", drifted));
+        }
+        return drifted;
+    }
+
+    public Integer maxId(Counter counter) {
+        return this.jdbcTemplate.queryForObject("select max(" + counter.idColumn + ") from " + counter.table,
+                Integer.class);
+    }
+
+    public enum Counter {
+        AUTHOR(Author.class, "author", "id_author", "select count(*) from book b where b.id_author = author.id_author"),
+        PUBLISHER(Publisher.class, "publisher", "id_publisher", "select count(*) from book b where b.id_publisher = publisher.id_publisher"),
+        SHELF(Shelf.class, "shelf", "id_shelf", "select count(*) from book b where b.id_shelf = shelf.id_shelf"),
+        ROOM(Room.class, "room", "id_room",
+                "select count(*) from book b join shelf s on s.id_shelf = b.id_shelf where s.id_room = room.id_room"),
+        STATUS_TYPE(StatusType.class, "status_type", "id_status_type",
+                "select count(*) from book b where b.id_status_type = status_type.id_status_type");
+
+        private final Class<?> type;
+        private final String table;
+        private final String idColumn;
+        private final String count;
+
+        Counter(Class<?> type, String table, String idColumn, String count) {
+            this.type = type;
+            this.table = table;
+            this.idColumn = idColumn;
+            this.count = count;
+        }
+
+        public Class<?> getType() {
+            return this.type;
+        }
+
+        private String addSql() {
+            return "update " + this.table + " set no_books = no_books + ? where " + this.idColumn + " = ?";
+        }
+    }
+
+    public record References(Integer idAuthor, Integer idPublisher, Integer idShelf, Integer idStatusType) {
+
+        // From the status rather than Book.statusType, which is only copied over after the listeners ran.
+        public static References of(Book book) {
+            return new References(
+                    book.getAuthor() == null ? null : book.getAuthor().getId(),
+                    book.getPublisher() == null ? null : book.getPublisher().getId(),
+                    book.getShelf() == null ? null : book.getShelf().getId(),
+                    book.getStatus() == null || book.getStatus().getStatusType() == null ? null
+                            : book.getStatus().getStatusType().getId());
+        }
+    }
+
+    // Applied in id order, so concurrent writers lock the counted rows in the same order.
+    private class Deltas {
+
+        private final Map<Counter, SortedMap<Integer, Long>> byCounter = new EnumMap<>(Counter.class);
+        private final SortedMap<Integer, Long> byRoomOfShelf = new TreeMap<>();
+
+        void add(References book, long delta) {
+            add(Counter.AUTHOR, book.idAuthor(), delta);
+            add(Counter.PUBLISHER, book.idPublisher(), delta);
+            addToShelf(book.idShelf(), delta);
+            add(Counter.STATUS_TYPE, book.idStatusType(), delta);
+        }
+
+        void addToShelf(Integer idShelf, long delta) {
+            add(Counter.SHELF, idShelf, delta);
+            if (idShelf != null) {
+                this.byRoomOfShelf.merge(idShelf, delta, Long::sum);
+            }
+        }
+
+        void add(Counter counter, Integer id, long delta) {
+            if (id != null) {
+                this.byCounter.computeIfAbsent(counter, key -> new TreeMap<>()).merge(id, delta, Long::sum);
+            }
+        }
+
+        void apply() {
+            this.byCounter.forEach((counter, deltas) -> update(counter.addSql(), deltas));
+            update(ADD_TO_ROOM_OF_SHELF, this.byRoomOfShelf);
+        }
+
+        private void update(String sql, SortedMap<Integer, Long> deltas) {
+            List<Object[]> arguments = new ArrayList<>();
+            deltas.forEach((id, delta) -> {
+                if (delta != 0) {
+                    arguments.add(new Object[]{delta, id});
+                }
+            });
+            if (!arguments.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, arguments);
+            }
+        }
+    }
+}
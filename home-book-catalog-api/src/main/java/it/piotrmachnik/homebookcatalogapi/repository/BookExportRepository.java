@@ -0,0 +1,10 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface BookExportRepository {
+    Stream<Book> streamAll(Specification<Book> filter);
+}
@@ -0,0 +1,45 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.stream.Stream;
+
+public class BookExportRepositoryImpl implements BookExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public Stream<Book> streamAll(Specification<Book> filter) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+        Predicate filterPredicate = filter.toPredicate(book, query, cb);
+        if (filterPredicate != null) {
+            query.where(filterPredicate);
+        }
+        query.select(book).orderBy(cb.asc(book.get("id")));
+
+        return this.entityManager.createQuery(query)
+                .setHint(EntityGraphType.FETCH.getKey(), this.entityManager.getEntityGraph(Book.GRAPH_FULL))
+                .setHint(QueryHints.HINT_FETCH_SIZE, this.fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+                .peek(this.entityManager::detach);
+    }
+}
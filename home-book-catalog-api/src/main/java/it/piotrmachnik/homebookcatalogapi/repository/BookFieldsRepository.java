@@ -0,0 +1,15 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFieldSet;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookFieldsRepository {
+    List<Map<String, Object>> findFields(Specification<Book> filter, BookFieldSet fieldSet, BookSort sort,
+                                         BookCursor after, int offset, int limit);
+}
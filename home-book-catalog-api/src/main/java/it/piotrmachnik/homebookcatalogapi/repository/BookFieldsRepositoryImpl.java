@@ -0,0 +1,85 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFieldSet;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.util.*;
+
+public class BookFieldsRepositoryImpl implements BookFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<Book> filter, BookFieldSet fieldSet, BookSort sort,
+                                                BookCursor after, int offset, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+
+        Set<String> paths = new LinkedHashSet<>(fieldSet.getPaths());
+        paths.add(BookSort.PROPERTY_ID);
+        paths.add(sort.getProperty());
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        paths.forEach(path -> selections.add(path(book, joins, path)));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filter.toPredicate(book, query, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (after != null) {
+            predicates.add(BookKeyset.after(cb, book, sort, after));
+        }
+        query.multiselect(selections).where(predicates.toArray(new Predicate[0])).orderBy(BookKeyset.orderBy(cb, book, sort));
+
+        TypedQuery<Tuple> typedQuery = this.entityManager.createQuery(query).setFirstResult(offset);
+        if (limit < Integer.MAX_VALUE) {
+            typedQuery.setMaxResults(limit);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new HashMap<>();
+            int i = 0;
+            for (String path : paths) {
+                row.put(path, tuple.get(i++));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // The id of a direct association is its foreign key column, so only deeper fields need a join.
+    private static Path<?> path(Root<Book> book, Map<String, From<?, ?>> joins, String path) {
+        int last = path.lastIndexOf('.');
+        if (last < 0) {
+            return book.get(path);
+        }
+        String association = path.substring(0, last);
+        String attribute = path.substring(last + 1);
+        if (association.indexOf('.') < 0 && BookSort.PROPERTY_ID.equals(attribute)) {
+            return book.get(association).get(attribute);
+        }
+        return join(book, joins, association).get(attribute);
+    }
+
+    private static From<?, ?> join(Root<Book> book, Map<String, From<?, ?>> joins, String association) {
+        From<?, ?> join = joins.get(association);
+        if (join == null) {
+            int last = association.lastIndexOf('.');
+            From<?, ?> parent = last < 0 ? book : join(book, joins, association.substring(0, last));
+            join = parent.join(association.substring(last + 1), JoinType.LEFT);
+            joins.put(association, join);
+        }
+        return join;
+    }
+}
@@ -0,0 +1,57 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.criteria.*;
+import java.util.List;
+
+class BookKeyset {
+
+    private BookKeyset() {
+    }
+
+    static List<Order> orderBy(CriteriaBuilder cb, Root<Book> book, BookSort sort) {
+        boolean ascending = sort.getDirection() == Sort.Direction.ASC;
+        Path<Integer> id = book.get(BookSort.PROPERTY_ID);
+        if (sort.isById()) {
+            return List.of(ascending ? cb.asc(id) : cb.desc(id));
+        }
+        Path<String> key = book.get(sort.getProperty());
+        return ascending ? List.of(cb.asc(key), cb.asc(id)) : List.of(cb.desc(key), cb.desc(id));
+    }
+
+    static Predicate after(CriteriaBuilder cb, Root<Book> book, BookSort sort, BookCursor after) {
+        boolean ascending = sort.getDirection() == Sort.Direction.ASC;
+        Path<Integer> id = book.get(BookSort.PROPERTY_ID);
+        if (sort.isById()) {
+            return ascending ? cb.greaterThan(id, after.getId()) : cb.lessThan(id, after.getId());
+        }
+        Path<String> key = book.get(sort.getProperty());
+        return ascending ? afterAscending(cb, key, id, after) : afterDescending(cb, key, id, after);
+    }
+
+    // Null keys sort first in ascending and last in descending order, as they do in MySQL.
+    private static Predicate afterAscending(CriteriaBuilder cb, Path<String> key, Path<Integer> id, BookCursor after) {
+        if (after.getKey() == null) {
+            return cb.or(
+                    cb.and(cb.isNull(key), cb.greaterThan(id, after.getId())),
+                    cb.isNotNull(key));
+        }
+        return cb.or(
+                cb.greaterThan(key, after.getKey()),
+                cb.and(cb.equal(key, after.getKey()), cb.greaterThan(id, after.getId())));
+    }
+
+    private static Predicate afterDescending(CriteriaBuilder cb, Path<String> key, Path<Integer> id, BookCursor after) {
+        if (after.getKey() == null) {
+            return cb.and(cb.isNull(key), cb.lessThan(id, after.getId()));
+        }
+        return cb.or(
+                cb.lessThan(key, after.getKey()),
+                cb.and(cb.equal(key, after.getKey()), cb.lessThan(id, after.getId())),
+                cb.isNull(key));
+    }
+}
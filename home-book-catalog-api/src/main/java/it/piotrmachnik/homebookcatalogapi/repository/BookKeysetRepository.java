@@ -0,0 +1,12 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BookKeysetRepository {
+    List<Book> findAfter(Specification<Book> filter, BookSort sort, BookCursor after, int limit);
+}
@@ -0,0 +1,41 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookKeysetRepositoryImpl implements BookKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Book> findAfter(Specification<Book> filter, BookSort sort, BookCursor after, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filterPredicate = filter.toPredicate(book, query, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+        if (after != null) {
+            predicates.add(BookKeyset.after(cb, book, sort, after));
+        }
+        query.select(book).where(predicates.toArray(new Predicate[0])).orderBy(BookKeyset.orderBy(cb, book, sort));
+
+        return this.entityManager.createQuery(query)
+                .setHint(EntityGraphType.FETCH.getKey(), this.entityManager.getEntityGraph(Book.GRAPH_FULL))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,25 +1,74 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
 import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
+@Transactional(readOnly = true)
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book>,
+        BookKeysetRepository, BookExportRepository, BookRowRepository, BookFieldsRepository {
+    @Override
+    @EntityGraph(Book.GRAPH_FULL)
+    List<Book> findAll();
+
+    @Override
+    @EntityGraph(Book.GRAPH_FULL)
+    Page<Book> findAll(Specification<Book> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(Book.GRAPH_FULL)
+    Optional<Book> findById(Integer id);
+
+    @EntityGraph(Book.GRAPH_SUMMARY)
+    Optional<Book> findSummaryById(Integer id);
+
+    @EntityGraph(Book.GRAPH_FULL)
+    List<Book> findByIdIn(Collection<Integer> ids);
+
+    @EntityGraph(Book.GRAPH_FULL)
     Collection<Book> findByAuthorId(Integer idAuthor);
 
+    @EntityGraph(Book.GRAPH_FULL)
     Collection<Book> findByPublisherId(Integer idPublisher);
 
+    @EntityGraph(Book.GRAPH_FULL)
     Collection<Book> findByShelfRoomId(Integer idRoom);
 
+    @EntityGraph(Book.GRAPH_FULL)
     Collection<Book> findByShelfId(Integer idRoom);
 
+    @EntityGraph(Book.GRAPH_FULL)
     Optional<Book> findByStatusId(Integer idStatus);
 
-    Collection<Book> findByStatusStatusTypeId(Integer idStatusType);
+    @EntityGraph(Book.GRAPH_FULL)
+    List<Book> findByStatusIdIn(Collection<Integer> idsStatus);
+
+    @EntityGraph(Book.GRAPH_FULL)
+    Collection<Book> findByStatusTypeId(Integer idStatusType);
 
+    @EntityGraph(Book.GRAPH_FULL)
     Collection<Book> findBookByName(String name);
+
+    @Query("select b.id from Book b where b.shelf.room.id = :idRoom")
+    List<Integer> findIdsByShelfRoomId(@Param("idRoom") Integer idRoom);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.shelf = :shelf where b.id in :ids")
+    int moveBooks(@Param("ids") Collection<Integer> ids, @Param("shelf") Shelf shelf);
 }
@@ -0,0 +1,11 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRowDTO;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BookRowRepository {
+    List<BookRowDTO> findRows(Specification<Book> filter);
+}
@@ -0,0 +1,41 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRowDTO;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.util.List;
+
+public class BookRowRepositoryImpl implements BookRowRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookRowDTO> findRows(Specification<Book> filter) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookRowDTO> query = cb.createQuery(BookRowDTO.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Author> author = book.join("author", JoinType.LEFT);
+        Join<Book, Publisher> publisher = book.join("publisher", JoinType.LEFT);
+        Join<Book, Shelf> shelf = book.join("shelf", JoinType.LEFT);
+        Join<Shelf, Room> room = shelf.join("room", JoinType.LEFT);
+        Join<Book, StatusType> statusType = book.join("statusType", JoinType.LEFT);
+        Predicate filterPredicate = filter.toPredicate(book, query, cb);
+        if (filterPredicate != null) {
+            query.where(filterPredicate);
+        }
+        query.select(cb.construct(BookRowDTO.class,
+                        book.get("id"), book.get("name"),
+                        author.get("id"), author.get("name"),
+                        publisher.get("id"), publisher.get("name"),
+                        shelf.get("id"), room.get("id"), room.get("name"),
+                        statusType.get("id"), statusType.get("name")))
+                .orderBy(cb.asc(book.get("id")));
+
+        return this.entityManager.createQuery(query).getResultList();
+    }
+}
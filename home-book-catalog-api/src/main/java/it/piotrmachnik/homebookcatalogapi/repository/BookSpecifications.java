@@ -0,0 +1,72 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookSpecifications {
+
+    public static Specification<Book> all() {
+        return (book, query, cb) -> null;
+    }
+
+    public static Specification<Book> byId(Integer id) {
+        return (book, query, cb) -> cb.equal(book.get("id"), id);
+    }
+
+    public static Specification<Book> byAuthor(Integer idAuthor) {
+        return (book, query, cb) -> cb.equal(book.get("author").get("id"), idAuthor);
+    }
+
+    public static Specification<Book> byPublisher(Integer idPublisher) {
+        return (book, query, cb) -> cb.equal(book.get("publisher").get("id"), idPublisher);
+    }
+
+    public static Specification<Book> byShelf(Integer idShelf) {
+        return (book, query, cb) -> cb.equal(book.get("shelf").get("id"), idShelf);
+    }
+
+    public static Specification<Book> byRoom(Integer idRoom) {
+        return (book, query, cb) -> cb.equal(book.get("shelf").get("room").get("id"), idRoom);
+    }
+
+    public static Specification<Book> byStatus(Integer idStatus) {
+        return (book, query, cb) -> cb.equal(book.get("status").get("id"), idStatus);
+    }
+
+    public static Specification<Book> byStatusType(Integer idStatusType) {
+        return (book, query, cb) -> cb.equal(book.get("statusType").get("id"), idStatusType);
+    }
+
+    public static Specification<Book> byName(String name) {
+        return (book, query, cb) -> cb.equal(book.get("name"), name);
+    }
+
+    public static Specification<Book> matching(BookFilter filter) {
+        return (book, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            in(cb, book.get("author").get("id"), filter.getIdAuthor(), predicates);
+            in(cb, book.get("publisher").get("id"), filter.getIdPublisher(), predicates);
+            in(cb, book.get("shelf").get("id"), filter.getIdShelf(), predicates);
+            in(cb, book.get("shelf").get("room").get("id"), filter.getIdRoom(), predicates);
+            in(cb, book.get("statusType").get("id"), filter.getIdStatusType(), predicates);
+            if (filter.getName() != null && !filter.getName().isBlank()) {
+                predicates.add(cb.equal(book.get("name"), filter.getName()));
+            }
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static void in(CriteriaBuilder cb, Expression<Integer> id, List<Integer> ids, List<Predicate> predicates) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        predicates.add(ids.size() == 1 ? cb.equal(id, ids.get(0)) : id.in(ids));
+    }
+}
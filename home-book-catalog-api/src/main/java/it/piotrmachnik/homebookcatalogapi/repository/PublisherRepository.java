@@ -1,12 +1,32 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
 import it.piotrmachnik.homebookcatalogapi.model.Publisher;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
+@Transactional(readOnly = true)
 public interface PublisherRepository extends JpaRepository<Publisher, Integer> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Collection<Publisher> findPublisherByName(String name);
+
+    Collection<Publisher> findByNameIn(Collection<String> names);
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO(p.id, p.name, count(b)) " +
+            "from Publisher p left join Book b on b.publisher = p group by p.id, p.name order by p.id")
+    List<NamedCountDTO> countBooksPerPublisher();
+
+    @Query(value = "select id_publisher as id, no_books as count from publisher", nativeQuery = true)
+    Collection<IdCount> findBookCounters();
 }
@@ -1,12 +1,31 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
 import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
+@Transactional(readOnly = true)
 public interface RoomRepository extends JpaRepository<Room, Integer> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Collection<Room> findRoomByName(String name);
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO(r.id, r.name, count(b)) " +
+            "from Room r left join Shelf s on s.room = r left join Book b on b.shelf = s " +
+            "group by r.id, r.name order by r.id")
+    List<NamedCountDTO> countBooksPerRoom();
+
+    @Query(value = "select id_room as id, no_books as count from room", nativeQuery = true)
+    Collection<IdCount> findBookCounters();
 }
@@ -1,16 +1,40 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
+import it.piotrmachnik.homebookcatalogapi.model.Room;
 import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface ShelfRepository extends JpaRepository<Shelf, Integer> {
+@Transactional(readOnly = true)
+public interface ShelfRepository extends JpaRepository<Shelf, Integer>, ShelfRowRepository {
+    @Override
+    @EntityGraph(attributePaths = "room")
+    List<Shelf> findAll();
+
     Collection<Shelf> findByRoomId(Integer idRoom);
 
     Collection<Shelf> findShelfByLetter(String letter);
 
     Collection<Shelf> findShelfByNumber(Integer number);
+
+    @Query("select s.room.id as id, count(s) as count from Shelf s group by s.room.id")
+    Collection<IdCount> countShelvesGroupByRoom();
+
+    @Query("select s.id from Shelf s where s.room.id = :idRoom")
+    List<Integer> findIdsByRoomId(@Param("idRoom") Integer idRoom);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Shelf s set s.room = :room where s.room.id = :idFromRoom")
+    int moveShelvesFromRoom(@Param("idFromRoom") Integer idFromRoom, @Param("room") Room room);
 }
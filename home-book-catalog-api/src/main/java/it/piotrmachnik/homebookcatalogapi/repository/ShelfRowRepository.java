@@ -0,0 +1,10 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
+
+import java.util.List;
+
+public interface ShelfRowRepository {
+
+    List<ShelfRowDTO> findRows();
+}
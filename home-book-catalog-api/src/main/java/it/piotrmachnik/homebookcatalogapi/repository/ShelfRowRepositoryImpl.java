@@ -0,0 +1,32 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ShelfRowRepositoryImpl implements ShelfRowRepository {
+
+    // Native, as the book counter is not mapped on Shelf.
+    private static final String ROWS = "select s.id_shelf, s.letter, s.number, r.id_room, r.name, s.no_books " +
+            "from shelf s left join room r on r.id_room = s.id_room order by s.id_shelf";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ShelfRowDTO> findRows() {
+        List<Object[]> rows = this.entityManager.createNativeQuery(ROWS).getResultList();
+        return rows.stream()
+                .map(row -> new ShelfRowDTO(integer(row[0]), (String) row[1], integer(row[2]), integer(row[3]),
+                        (String) row[4], ((Number) row[5]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static Integer integer(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+}
@@ -0,0 +1,36 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.StatusHistory;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.MonthCount;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusChangeDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface StatusHistoryRepository extends JpaRepository<StatusHistory, Long> {
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.StatusChangeDTO(" +
+            "h.id, h.idBook, t.id, t.name, h.dateFrom, h.comment) " +
+            "from StatusHistory h left join h.statusType t " +
+            "where h.idBook = :idBook order by h.dateFrom, h.id")
+    List<StatusChangeDTO> findChangesByBook(@Param("idBook") Integer idBook);
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.StatusChangeDTO(" +
+            "h.id, h.idBook, t.id, t.name, h.dateFrom, h.comment) " +
+            "from StatusHistory h left join h.statusType t " +
+            "where h.dateFrom >= :from and h.dateFrom < :to order by h.dateFrom, h.id")
+    List<StatusChangeDTO> findChangesBetween(@Param("from") Date from, @Param("to") Date to);
+
+    // A book's history starts when it is added, so its first entry dates the addition.
+    @Query(value = "select year(added.date_from) as addedYear, month(added.date_from) as addedMonth, count(*) as books " +
+            "from (select min(date_from) as date_from from status_history group by id_book) added " +
+            "group by year(added.date_from), month(added.date_from) order by 1, 2", nativeQuery = true)
+    List<MonthCount> countBooksAddedPerMonth();
+}
@@ -3,7 +3,9 @@ package it.piotrmachnik.homebookcatalogapi.repository;
 import it.piotrmachnik.homebookcatalogapi.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface StatusRepository extends JpaRepository<Status, Integer> {
 }
@@ -1,12 +1,30 @@
 package it.piotrmachnik.homebookcatalogapi.repository;
 
 import it.piotrmachnik.homebookcatalogapi.model.StatusType;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 @Repository
+@Transactional(readOnly = true)
 public interface StatusTypeRepository extends JpaRepository<StatusType, Integer> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Collection<StatusType> findStatusTypeByName(String name);
+
+    @Query("select new it.piotrmachnik.homebookcatalogapi.modelDTO.NamedCountDTO(t.id, t.name, count(b)) " +
+            "from StatusType t left join Book b on b.statusType = t group by t.id, t.name order by t.id")
+    List<NamedCountDTO> countBooksPerStatusType();
+
+    @Query(value = "select id_status_type as id, no_books as count from status_type", nativeQuery = true)
+    Collection<IdCount> findBookCounters();
 }
@@ -2,36 +2,39 @@ package it.piotrmachnik.homebookcatalogapi.service;
 
 import it.piotrmachnik.homebookcatalogapi.model.Author;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.AuthorDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import it.piotrmachnik.homebookcatalogapi.repository.AuthorRepository;
-import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AuthorService {
     private AuthorRepository authorRepository;
-    private BookRepository bookRepository;
 
-    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository) {
+    public AuthorService(AuthorRepository authorRepository) {
         this.authorRepository = authorRepository;
-        this.bookRepository = bookRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<AuthorDTO> getAuthorsForAngular() {
         List<Author> authors  =  this.authorRepository.findAll();
+        Map<Integer, Long> noBooks = IdCount.toMap(this.authorRepository.findBookCounters());
         List<AuthorDTO> authorsDTO = new ArrayList<>();
         authors.stream().forEach(author -> {
             authorsDTO.add(AuthorDTO.builder()
                     .id(author.getId())
                     .name(author.getName())
-                    .noBooks((int)this.bookRepository.findByAuthorId(author.getId()).stream().count())
+                    .noBooks(noBooks.getOrDefault(author.getId(), 0L).intValue())
                     .build());
         });
         return authorsDTO;
     }
 
+    @Transactional
     public void updateAuthor(Integer id, Author newPartialAuthor) {
         this.authorRepository.findById(id).ifPresent(author -> {
             if (newPartialAuthor.getName() != null) {
@@ -0,0 +1,94 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.repository.BookCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class BookCounterRepairService implements DisposableBean {
+
+    private BookCounterRepository bookCounterRepository;
+    private TransactionTemplate transactionTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private Duration repairInterval;
+    private int batchSize;
+    private ScheduledExecutorService executor;
+
+    public BookCounterRepairService(BookCounterRepository bookCounterRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${catalog.counters.repair-interval:1d}") Duration repairInterval,
+                                    @Value("${catalog.counters.repair-batch-size:1000}") int batchSize) {
+        this.bookCounterRepository = bookCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.repairInterval = repairInterval;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRepairs() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-counter-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(() -> {
+            try {
+                repair();
+            } catch (RuntimeException e) {
+                log.error("Repairing the book counters failed", e);
+            }
+        }, this.repairInterval.toMillis(), this.repairInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public int repair() {
+        int repaired = 0;
+        for (BookCounterRepository.Counter counter : BookCounterRepository.Counter.values()) {
+            Integer maxId = this.bookCounterRepository.maxId(counter);
+            if (maxId == null) {
+                continue;
+            }
+            int corrected = 0;
+            for (int fromId = 0; fromId <= maxId; fromId += this.batchSize) {
+                int from = fromId;
+                corrected += this.transactionTemplate.execute(status -> {
+                    List<Integer> ids = this.bookCounterRepository.repair(counter, from, from + this.batchSize);
+                    // Published in the batch's transaction, so ETags, snapshots and cached stats move on after commit.
+                    if (!ids.isEmpty()) {
+                        this.eventPublisher.publishEvent(
+                                new CatalogChangeEvent(counter.getType(), CatalogChangeEvent.Kind.UPDATED, ids));
+                    }
+                    return ids.size();
+                });
+            }
+            if (corrected > 0) {
+                log.warn("Repaired {} drifted {} book counters", corrected, counter);
+            }
+            repaired += corrected;
+        }
+        return repaired;
+    }
+
+    @Override
+    public void destroy() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+}
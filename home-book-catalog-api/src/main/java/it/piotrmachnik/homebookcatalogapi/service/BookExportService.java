@@ -0,0 +1,89 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookExportFormat;
+import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BookExportService {
+
+    private static final String[] CSV_HEADER = {"id", "name", "author", "publisher", "room", "shelf_letter",
+            "shelf_number", "status_type", "date_up", "comment"};
+
+    private BookRepository bookRepository;
+    private ObjectWriter bookWriter;
+
+    public BookExportService(BookRepository bookRepository, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.bookWriter = objectMapper.writerFor(Book.class);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBooks(Specification<Book> filter, BookExportFormat format, OutputStream output)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try (Stream<Book> books = this.bookRepository.streamAll(filter)) {
+            Iterator<Book> iterator = books.iterator();
+            if (format == BookExportFormat.CSV) {
+                writeCsvRow(writer, CSV_HEADER);
+            }
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                if (format == BookExportFormat.CSV) {
+                    writeCsvRow(writer, csvValues(book));
+                } else {
+                    writer.write(this.bookWriter.writeValueAsString(book));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static String[] csvValues(Book book) {
+        return new String[]{
+                String.valueOf(book.getId()),
+                book.getName(),
+                book.getAuthor() == null ? null : book.getAuthor().getName(),
+                book.getPublisher() == null ? null : book.getPublisher().getName(),
+                book.getShelf() == null || book.getShelf().getRoom() == null ? null : book.getShelf().getRoom().getName(),
+                book.getShelf() == null ? null : book.getShelf().getLetter(),
+                book.getShelf() == null || book.getShelf().getNumber() == null ? null : book.getShelf().getNumber().toString(),
+                book.getStatus() == null || book.getStatus().getStatusType() == null ? null : book.getStatus().getStatusType().getName(),
+                book.getStatus() == null || book.getStatus().getDateUp() == null ? null : book.getStatus().getDateUp().toString(),
+                book.getStatus() == null ? null : book.getStatus().getComment()};
+    }
+
+    private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
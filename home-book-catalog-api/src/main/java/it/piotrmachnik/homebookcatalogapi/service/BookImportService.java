@@ -0,0 +1,241 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.config.PlaceholderNames;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookImportResultDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BookImportService {
+
+    private BookBatchRepository bookBatchRepository;
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private ShelfRepository shelfRepository;
+    private StatusTypeRepository statusTypeRepository;
+    private TransactionTemplate transactionTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private int batchSize;
+
+    public BookImportService(BookBatchRepository bookBatchRepository, AuthorRepository authorRepository,
+                             PublisherRepository publisherRepository, ShelfRepository shelfRepository,
+                             StatusTypeRepository statusTypeRepository, PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher, @Value("${catalog.import.batch-size:500}") int batchSize) {
+        this.bookBatchRepository = bookBatchRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.shelfRepository = shelfRepository;
+        this.statusTypeRepository = statusTypeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public List<BookImportResultDTO> addBooks(Iterator<Book> books) {
+        List<BookImportResultDTO> results = new ArrayList<>();
+        References references = new References();
+        List<Book> chunk = new ArrayList<>(this.batchSize);
+        while (books.hasNext()) {
+            chunk.add(books.next());
+            if (chunk.size() == this.batchSize) {
+                results.addAll(addChunk(chunk, results.size(), references));
+                chunk = new ArrayList<>(this.batchSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(addChunk(chunk, results.size(), references));
+        }
+        return results;
+    }
+
+    private List<BookImportResultDTO> addChunk(List<Book> chunk, int firstIndex, References references) {
+        try {
+            return this.transactionTemplate.execute(status -> {
+                resolveReferences(chunk, references);
+                return insertChunk(chunk, firstIndex, references);
+            });
+        } catch (DataAccessException e) {
+            // ids resolved inside the rolled back transaction may not exist any more
+            references.clear();
+            List<BookImportResultDTO> failed = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(BookImportResultDTO.failed(firstIndex + i, e.getMostSpecificCause().getMessage()));
+            }
+            return failed;
+        }
+    }
+
+    private List<BookImportResultDTO> insertChunk(List<Book> chunk, int firstIndex, References references) {
+        BookImportResultDTO[] results = new BookImportResultDTO[chunk.size()];
+        List<Book> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Date dateUp = new Date(System.currentTimeMillis());
+        for (int i = 0; i < chunk.size(); i++) {
+            Book book = chunk.get(i);
+            String error = validate(book, references);
+            if (error != null) {
+                results[i] = BookImportResultDTO.failed(firstIndex + i, error);
+            } else {
+                accepted.add(toImportedBook(book, references, dateUp));
+                acceptedIndexes.add(i);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            this.bookBatchRepository.insertBooks(accepted);
+            this.eventPublisher.publishEvent(new CatalogChangeEvent(Book.class, CatalogChangeEvent.Kind.CREATED,
+                    accepted.stream().map(Book::getId).collect(Collectors.toList())));
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = BookImportResultDTO.created(firstIndex + index, accepted.get(i).getId());
+        }
+        return Arrays.asList(results);
+    }
+
+    private void resolveReferences(List<Book> chunk, References references) {
+        List<Book> books = chunk.stream().filter(Objects::nonNull).collect(Collectors.toList());
+
+        Set<Integer> authorIds = idsOf(books, Book::getAuthor, Author::getId, references.authorIds);
+        this.authorRepository.findAllById(authorIds).forEach(author -> references.authorIds.add(author.getId()));
+        Set<String> authorNames = books.stream().map(this::authorName).filter(Objects::nonNull)
+                .filter(name -> !references.authorIdsByName.containsKey(name))
+                .collect(Collectors.toSet());
+        if (!authorNames.isEmpty()) {
+            this.authorRepository.findByNameIn(authorNames)
+                    .forEach(author -> references.authorIdsByName.putIfAbsent(author.getName(), author.getId()));
+            List<Author> newAuthors = authorNames.stream()
+                    .filter(name -> !references.authorIdsByName.containsKey(name))
+                    .map(Author::new)
+                    .collect(Collectors.toList());
+            this.authorRepository.saveAll(newAuthors)
+                    .forEach(author -> references.authorIdsByName.put(author.getName(), author.getId()));
+        }
+
+        Set<Integer> publisherIds = idsOf(books, Book::getPublisher, Publisher::getId, references.publisherIds);
+        this.publisherRepository.findAllById(publisherIds)
+                .forEach(publisher -> references.publisherIds.add(publisher.getId()));
+        Set<String> publisherNames = books.stream().map(this::publisherName).filter(Objects::nonNull)
+                .filter(name -> !references.publisherIdsByName.containsKey(name))
+                .collect(Collectors.toSet());
+        if (!publisherNames.isEmpty()) {
+            this.publisherRepository.findByNameIn(publisherNames)
+                    .forEach(publisher -> references.publisherIdsByName.putIfAbsent(publisher.getName(), publisher.getId()));
+            List<Publisher> newPublishers = publisherNames.stream()
+                    .filter(name -> !references.publisherIdsByName.containsKey(name))
+                    .map(Publisher::new)
+                    .collect(Collectors.toList());
+            this.publisherRepository.saveAll(newPublishers)
+                    .forEach(publisher -> references.publisherIdsByName.put(publisher.getName(), publisher.getId()));
+        }
+
+        Set<Integer> shelfIds = idsOf(books, Book::getShelf, Shelf::getId, references.shelfIds);
+        this.shelfRepository.findAllById(shelfIds).forEach(shelf -> references.shelfIds.add(shelf.getId()));
+
+        Set<Integer> statusTypeIds = books.stream()
+                .map(Book::getStatus).filter(Objects::nonNull)
+                .map(Status::getStatusType).filter(Objects::nonNull)
+                .map(StatusType::getId).filter(Objects::nonNull)
+                .filter(id -> !references.statusTypeIds.contains(id))
+                .collect(Collectors.toSet());
+        this.statusTypeRepository.findAllById(statusTypeIds)
+                .forEach(statusType -> references.statusTypeIds.add(statusType.getId()));
+    }
+
+    private String validate(Book book, References references) {
+        if (book == null) {
+            return "Malformed book";
+        }
+        if (book.getStatus() == null || book.getStatus().getStatusType() == null
+                || book.getStatus().getStatusType().getId() == null) {
+            return "Status type id is required";
+        }
+        if (!references.statusTypeIds.contains(book.getStatus().getStatusType().getId())) {
+            return "Unknown status type " + book.getStatus().getStatusType().getId();
+        }
+        if (book.getShelf() != null && !references.shelfIds.contains(book.getShelf().getId())) {
+            return "Unknown shelf " + book.getShelf().getId();
+        }
+        if (book.getAuthor() != null && book.getAuthor().getId() != null
+                && !references.authorIds.contains(book.getAuthor().getId())) {
+            return "Unknown author " + book.getAuthor().getId();
+        }
+        if (book.getPublisher() != null && book.getPublisher().getId() != null
+                && !references.publisherIds.contains(book.getPublisher().getId())) {
+            return "Unknown publisher " + book.getPublisher().getId();
+        }
+        return null;
+    }
+
+    private Book toImportedBook(Book book, References references, Date dateUp) {
+        Integer idAuthor = book.getAuthor() != null && book.getAuthor().getId() != null
+                ? book.getAuthor().getId() : references.authorIdsByName.get(authorName(book));
+        Integer idPublisher = book.getPublisher() != null && book.getPublisher().getId() != null
+                ? book.getPublisher().getId() : references.publisherIdsByName.get(publisherName(book));
+        return Book.builder()
+                .name(book.getName())
+                .author(Author.builder().id(idAuthor).build())
+                .publisher(Publisher.builder().id(idPublisher).build())
+                .shelf(book.getShelf() == null ? null : Shelf.builder().id(book.getShelf().getId()).build())
+                .status(Status.builder()
+                        .statusType(StatusType.builder().id(book.getStatus().getStatusType().getId()).build())
+                        .dateUp(dateUp)
+                        .comment(book.getStatus().getComment())
+                        .build())
+                .build();
+    }
+
+    private String authorName(Book book) {
+        if (book.getAuthor() == null || isBlank(book.getAuthor().getName()) && book.getAuthor().getId() == null) {
+            return PlaceholderNames.AUTHOR_NAME;
+        }
+        return book.getAuthor().getId() == null ? book.getAuthor().getName() : null;
+    }
+
+    private String publisherName(Book book) {
+        if (book.getPublisher() == null || isBlank(book.getPublisher().getName()) && book.getPublisher().getId() == null) {
+            return PlaceholderNames.PUBLISHER_NAME;
+        }
+        return book.getPublisher().getId() == null ? book.getPublisher().getName() : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static <T> Set<Integer> idsOf(List<Book> books, Function<Book, T> reference,
+                                          Function<T, Integer> id, Set<Integer> known) {
+        return books.stream().map(reference).filter(Objects::nonNull)
+                .map(id).filter(Objects::nonNull)
+                .filter(value -> !known.contains(value))
+                .collect(Collectors.toSet());
+    }
+
+    private static class References {
+        private final Map<String, Integer> authorIdsByName = new HashMap<>();
+        private final Map<String, Integer> publisherIdsByName = new HashMap<>();
+        private final Set<Integer> authorIds = new HashSet<>();
+        private final Set<Integer> publisherIds = new HashSet<>();
+        private final Set<Integer> shelfIds = new HashSet<>();
+        private final Set<Integer> statusTypeIds = new HashSet<>();
+
+        private void clear() {
+            this.authorIdsByName.clear();
+            this.publisherIdsByName.clear();
+            this.authorIds.clear();
+            this.publisherIds.clear();
+            this.shelfIds.clear();
+            this.statusTypeIds.clear();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.model.Author;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.Publisher;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSearchHitDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSearchResultDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.BookSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.highlight.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class BookSearchService implements DisposableBean {
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_AUTHOR = "author";
+    public static final String FIELD_PUBLISHER = "publisher";
+
+    private static final String[] SEARCH_FIELDS = {FIELD_NAME, FIELD_AUTHOR, FIELD_PUBLISHER};
+    private static final Map<String, Float> BOOSTS = Map.of(FIELD_NAME, 3f, FIELD_AUTHOR, 2f, FIELD_PUBLISHER, 1f);
+    private static final String GENERATION_PREFIX = "generation-";
+    private static final Pattern QUERY_SYNTAX = Pattern.compile("[+\\-!(){}\\[\\]^\"~*?:\\\\/&|]");
+
+    private BookRepository bookRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private Path indexDirectory;
+    private Analyzer analyzer = new StandardAnalyzer();
+    private AtomicReference<Generation> current = new AtomicReference<>();
+    private ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookSearchService(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                             @Value("${catalog.search.index-dir:}") String indexDirectory) throws IOException {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.indexDirectory = indexDirectory.isBlank() ? null : Paths.get(indexDirectory);
+        this.current.set(openLatestGeneration());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildInBackground();
+    }
+
+    public Future<?> rebuildInBackground() {
+        return this.rebuildExecutor.submit(() -> {
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException e) {
+                log.error("Rebuilding the book search index failed", e);
+            }
+        });
+    }
+
+    public BookSearchResultDTO search(String text, int page, int size) throws IOException {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        Query query = parse(text);
+        // Held until the search is done, so rebuild() cannot close the generation underneath it.
+        this.swapLock.readLock().lock();
+        try {
+            return search(this.current.get(), query, text, page, size);
+        } finally {
+            this.swapLock.readLock().unlock();
+        }
+    }
+
+    private BookSearchResultDTO search(Generation generation, Query query, String text, int page, int size)
+            throws IOException {
+        IndexSearcher searcher = generation.searcherManager.acquire();
+        try {
+            TopScoreDocCollector collector = TopScoreDocCollector.create((page + 1) * size, Integer.MAX_VALUE);
+            searcher.search(query, collector);
+            TopDocs topDocs = collector.topDocs(page * size, size);
+            List<BookSearchHitDTO> hits = new ArrayList<>();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                hits.add(hit(searcher.doc(scoreDoc.doc), scoreDoc.score, query));
+            }
+            return BookSearchResultDTO.builder()
+                    .query(text)
+                    .page(page)
+                    .size(size)
+                    .total((long) collector.getTotalHits())
+                    .hits(hits)
+                    .build();
+        } finally {
+            generation.searcherManager.release(searcher);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) throws IOException {
+        Set<Integer> ids = new HashSet<>();
+        if (event.isAbout(Book.class)) {
+            ids.addAll(event.getIds());
+        } else if (event.isAbout(Author.class) && event.getKind() == CatalogChangeEvent.Kind.UPDATED) {
+            event.getIds().forEach(id -> this.bookRepository.findByAuthorId(id).forEach(book -> ids.add(book.getId())));
+        } else if (event.isAbout(Publisher.class) && event.getKind() == CatalogChangeEvent.Kind.UPDATED) {
+            event.getIds().forEach(id -> this.bookRepository.findByPublisherId(id).forEach(book -> ids.add(book.getId())));
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Book> books = event.getKind() == CatalogChangeEvent.Kind.DELETED && event.isAbout(Book.class)
+                ? List.of() : this.bookRepository.findByIdIn(ids);
+        this.swapLock.readLock().lock();
+        try {
+            if (this.rebuilding) {
+                this.changedDuringRebuild.addAll(ids);
+            }
+            apply(this.current.get(), ids, books);
+        } finally {
+            this.swapLock.readLock().unlock();
+        }
+    }
+
+    synchronized void rebuild() throws IOException {
+        this.changedDuringRebuild.clear();
+        this.rebuilding = true;
+        Generation next = openGeneration(newGenerationDirectory());
+        Generation previous;
+        try {
+            this.readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Book> books = this.bookRepository.streamAll(BookSpecifications.all())) {
+                    books.forEach(book -> {
+                        try {
+                            next.writer.addDocument(document(book));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            next.writer.commit();
+            next.searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            this.rebuilding = false;
+            next.close();
+            throw e;
+        }
+
+        this.swapLock.writeLock().lock();
+        try {
+            previous = this.current.getAndSet(next);
+            this.rebuilding = false;
+        } finally {
+            this.swapLock.writeLock().unlock();
+        }
+        replayChangedDuringRebuild(next);
+        previous.close();
+        log.info("Book search index rebuilt with {} books", next.writer.getDocStats().numDocs);
+    }
+
+    private void replayChangedDuringRebuild(Generation generation) throws IOException {
+        if (this.changedDuringRebuild.isEmpty()) {
+            return;
+        }
+        Set<Integer> ids = new HashSet<>(this.changedDuringRebuild);
+        this.changedDuringRebuild.clear();
+        List<Book> books = this.readOnlyTransaction.execute(status -> this.bookRepository.findByIdIn(ids));
+        this.swapLock.readLock().lock();
+        try {
+            apply(generation, ids, books);
+        } finally {
+            this.swapLock.readLock().unlock();
+        }
+    }
+
+    private void apply(Generation generation, Set<Integer> ids, List<Book> books) throws IOException {
+        Set<Integer> removed = new HashSet<>(ids);
+        for (Book book : books) {
+            generation.writer.updateDocument(new Term(FIELD_ID, book.getId().toString()), document(book));
+            removed.remove(book.getId());
+        }
+        for (Integer id : removed) {
+            generation.writer.deleteDocuments(new Term(FIELD_ID, id.toString()));
+        }
+        generation.searcherManager.maybeRefresh();
+    }
+
+    private Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, this.analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QUERY_SYNTAX.matcher(text).replaceAll(" "));
+            } catch (ParseException stripped) {
+                throw new IllegalArgumentException("Invalid search query: " + text);
+            }
+        }
+    }
+
+    private BookSearchHitDTO hit(Document document, float score, Query query) throws IOException {
+        Map<String, String> highlights = new LinkedHashMap<>();
+        for (String field : SEARCH_FIELDS) {
+            String value = document.get(field);
+            if (value == null) {
+                continue;
+            }
+            Highlighter highlighter = new Highlighter(new QueryScorer(query, field));
+            try {
+                String fragment = highlighter.getBestFragment(this.analyzer, field, value);
+                if (fragment != null) {
+                    highlights.put(field, fragment);
+                }
+            } catch (InvalidTokenOffsetsException e) {
+                log.warn("Could not highlight {} of book {}", field, document.get(FIELD_ID), e);
+            }
+        }
+        return BookSearchHitDTO.builder()
+                .id(Integer.valueOf(document.get(FIELD_ID)))
+                .score(score)
+                .name(document.get(FIELD_NAME))
+                .author(document.get(FIELD_AUTHOR))
+                .publisher(document.get(FIELD_PUBLISHER))
+                .highlights(highlights)
+                .build();
+    }
+
+    private static Document document(Book book) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, book.getId().toString(), Field.Store.YES));
+        if (book.getName() != null) {
+            document.add(new TextField(FIELD_NAME, book.getName(), Field.Store.YES));
+        }
+        if (book.getAuthor() != null && book.getAuthor().getName() != null) {
+            document.add(new TextField(FIELD_AUTHOR, book.getAuthor().getName(), Field.Store.YES));
+        }
+        if (book.getPublisher() != null && book.getPublisher().getName() != null) {
+            document.add(new TextField(FIELD_PUBLISHER, book.getPublisher().getName(), Field.Store.YES));
+        }
+        return document;
+    }
+
+    private Generation openLatestGeneration() throws IOException {
+        List<Path> generations = generationDirectories();
+        for (Path stale : generations.subList(Math.min(1, generations.size()), generations.size())) {
+            FileSystemUtils.deleteRecursively(stale);
+        }
+        return openGeneration(generations.isEmpty() ? newGenerationDirectory() : generations.get(0));
+    }
+
+    // Newest first.
+    private List<Path> generationDirectories() throws IOException {
+        if (this.indexDirectory == null || !Files.isDirectory(this.indexDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(this.indexDirectory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .sorted(Comparator.comparingLong(BookSearchService::generationNumber).reversed())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Numbered one past the newest generation on disk, so the order survives restarts.
+    private Path newGenerationDirectory() throws IOException {
+        if (this.indexDirectory == null) {
+            return null;
+        }
+        List<Path> generations = generationDirectories();
+        long number = generations.isEmpty() ? 1 : Math.max(1, generationNumber(generations.get(0)) + 1);
+        Files.createDirectories(this.indexDirectory);
+        return this.indexDirectory.resolve(String.format("%s%019d", GENERATION_PREFIX, number));
+    }
+
+    private static long generationNumber(Path generation) {
+        try {
+            return Long.parseLong(generation.getFileName().toString().substring(GENERATION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private Generation openGeneration(Path path) throws IOException {
+        Directory directory = path == null ? new ByteBuffersDirectory() : FSDirectory.open(path);
+        IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(this.analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        return new Generation(path, directory, writer, new SearcherManager(writer, null));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        this.rebuildExecutor.shutdownNow();
+        Generation generation = this.current.get();
+        generation.writer.commit();
+        generation.searcherManager.close();
+        generation.writer.close();
+        generation.directory.close();
+    }
+
+    private static class Generation {
+        private final Path path;
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+
+        private Generation(Path path, Directory directory, IndexWriter writer, SearcherManager searcherManager) {
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+
+        private void close() throws IOException {
+            this.searcherManager.close();
+            this.writer.close();
+            this.directory.close();
+            if (this.path != null) {
+                FileSystemUtils.deleteRecursively(this.path);
+            }
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package it.piotrmachnik.homebookcatalogapi.service;
 
 import it.piotrmachnik.homebookcatalogapi.config.PlaceholderNames;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
 import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookCursor;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFieldSet;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookPageRequest;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRelocationDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRowDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSlice;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,17 +33,81 @@ public class BookService {
     private PublisherRepository publisherRepository;
     private ShelfRepository shelfRepository;
     private StatusTypeRepository statusTypeRepository;
+    private StatusHistoryService statusHistoryService;
+    private BookCounterRepository bookCounterRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     public BookService(BookRepository bookRepository, AuthorRepository authorRepository,
                        PublisherRepository publisherRepository, ShelfRepository shelfRepository,
-                       StatusTypeRepository statusTypeRepository) {
+                       StatusTypeRepository statusTypeRepository, StatusHistoryService statusHistoryService,
+                       BookCounterRepository bookCounterRepository, ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.publisherRepository = publisherRepository;
         this.shelfRepository = shelfRepository;
         this.statusTypeRepository = statusTypeRepository;
+        this.statusHistoryService = statusHistoryService;
+        this.bookCounterRepository = bookCounterRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
+    public List<BookRowDTO> getBookRows(Specification<Book> filter) {
+        return this.bookRepository.findRows(filter);
+    }
+
+    @Transactional(readOnly = true)
+    public BookSlice<Book> getBooksAfter(Specification<Book> filter, BookPageRequest pageRequest) {
+        BookSort sort = pageRequest.getBookSort();
+        int limit = pageRequest.getLimit();
+        List<Book> books = this.bookRepository.findAfter(filter, sort, pageRequest.getCursor(), limit + 1);
+        if (books.size() <= limit) {
+            return new BookSlice<>(books, null);
+        }
+        List<Book> content = books.subList(0, limit);
+        return new BookSlice<>(content, BookCursor.of(content.get(limit - 1), sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Book> getBooksPage(Specification<Book> filter, BookPageRequest pageRequest) {
+        int page = Math.max(pageRequest.getPage() == null ? 0 : pageRequest.getPage(), 0);
+        return this.bookRepository.findAll(filter,
+                PageRequest.of(page, pageRequest.getLimit(), pageRequest.getBookSort().toSort()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBookFields(Specification<Book> filter, BookFieldSet fieldSet) {
+        return this.bookRepository.findFields(filter, fieldSet, BookSort.parse(null), null, 0, Integer.MAX_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public BookSlice<Map<String, Object>> getBookFieldsAfter(Specification<Book> filter, BookPageRequest pageRequest,
+                                                             BookFieldSet fieldSet) {
+        BookSort sort = pageRequest.getBookSort();
+        int limit = pageRequest.getLimit();
+        List<Map<String, Object>> rows = this.bookRepository.findFields(filter, fieldSet, sort, pageRequest.getCursor(),
+                0, limit + 1);
+        if (rows.size() <= limit) {
+            return new BookSlice<>(rows, null);
+        }
+        List<Map<String, Object>> content = rows.subList(0, limit);
+        Map<String, Object> last = content.get(limit - 1);
+        return new BookSlice<>(content, new BookCursor((Integer) last.get(BookSort.PROPERTY_ID),
+                sort.isById() ? null : (String) last.get(sort.getProperty())));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getBookFieldsPage(Specification<Book> filter, BookPageRequest pageRequest,
+                                                       BookFieldSet fieldSet) {
+        int page = Math.max(pageRequest.getPage() == null ? 0 : pageRequest.getPage(), 0);
+        BookSort sort = pageRequest.getBookSort();
+        int limit = pageRequest.getLimit();
+        List<Map<String, Object>> rows = this.bookRepository.findFields(filter, fieldSet, sort, null, page * limit, limit);
+        return PageableExecutionUtils.getPage(rows, PageRequest.of(page, limit, sort.toSort()),
+                () -> this.bookRepository.count(filter));
+    }
+
+    @Transactional
     public Book addBook(Book book) {
         Optional<Author> authorAdded;
         if (book.getAuthor() == null) {
@@ -81,11 +162,14 @@ public class BookService {
                 .shelf(addedShelf.get())
                 .build();
 
-        return this.bookRepository.save(addedBook);
+        Book savedBook = this.bookRepository.save(addedBook);
+        this.statusHistoryService.recordStatus(savedBook);
+        return savedBook;
     }
 
+    @Transactional
     public void updateBook(Integer id, Book newPartialBook) {
-        this.bookRepository.findById(id).ifPresent(book -> {
+        this.bookRepository.findSummaryById(id).ifPresent(book -> {
             if (newPartialBook.getName() != null) {
                 book.setName(
                         newPartialBook.getName());
@@ -103,10 +187,64 @@ public class BookService {
                         newPartialBook.getShelf());
             }
             if (newPartialBook.getStatus() != null) {
+                StatusType statusType = newPartialBook.getStatus().getStatusType();
+                if (statusType != null && statusType.getId() != null) {
+                    newPartialBook.getStatus().setStatusType(this.statusTypeRepository.findById(statusType.getId())
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown status type: " + statusType.getId())));
+                }
                 book.setStatus(newPartialBook.getStatus());
                 book.getStatus().setDateUp(new Date(System.currentTimeMillis()));
             }
-            this.bookRepository.save(book);
+            Book savedBook = this.bookRepository.save(book);
+            if (newPartialBook.getStatus() != null) {
+                this.statusHistoryService.recordStatus(savedBook);
+            }
         });
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public RelocationResultDTO relocateBooks(BookRelocationDTO relocation) {
+        if (relocation.getIdShelf() == null) {
+            throw new IllegalArgumentException("Target shelf is required");
+        }
+        if ((relocation.getIds() == null) == (relocation.getIdFromShelf() == null)) {
+            throw new IllegalArgumentException("Either book ids or a source shelf is required");
+        }
+        Shelf shelf = this.shelfRepository.findById(relocation.getIdShelf())
+                .orElseThrow(() -> new IllegalArgumentException("Unknown shelf: " + relocation.getIdShelf()));
+        if (relocation.getIds() != null) {
+            Map<Integer, Integer> shelves = relocation.getIds().isEmpty() ? Map.of()
+                    : this.bookCounterRepository.lockShelves(relocation.getIds());
+            return RelocationResultDTO.builder().books(moveBooks(shelves, shelf)).build();
+        }
+        return RelocationResultDTO.builder().books(moveBooksFromShelf(relocation.getIdFromShelf(), shelf)).build();
+    }
+
+    int moveBooksFromShelf(Integer idFromShelf, Shelf shelf) {
+        if (idFromShelf.equals(shelf.getId())) {
+            throw new IllegalArgumentException("Books are already on shelf " + shelf.getId());
+        }
+        return moveBooks(this.bookCounterRepository.lockShelvesOnShelf(idFromShelf), shelf);
+    }
+
+    private int moveBooks(Map<Integer, Integer> shelvesByBook, Shelf shelf) {
+        if (shelvesByBook.isEmpty()) {
+            return 0;
+        }
+        this.bookCounterRepository.moveBooks(shelvesByBook, shelf.getId());
+        int moved = this.bookRepository.moveBooks(shelvesByBook.keySet(), shelf);
+        publishMoved(shelvesByBook.keySet());
+        return moved;
+    }
+
+    // Bulk updates bypass the entity listeners, so the change is published here for caches, tags and the index,
+    // and the counters are moved by the callers.
+    private void publishMoved(Collection<Integer> ids) {
+        this.eventPublisher.publishEvent(new CatalogChangeEvent(Book.class, CatalogChangeEvent.Kind.UPDATED, ids));
+    }
+
+    @Transactional
+    public void deleteBook(Integer id) {
+        this.bookRepository.findSummaryById(id).ifPresent(this.bookRepository::delete);
+    }
+}
@@ -0,0 +1,255 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory read model. Once loaded, GETs on books, shelves and rooms are answered from an immutable
+ * {@link CatalogSnapshot} that is replaced, never modified, when a committed change comes in.
+ */
+@Slf4j
+@Service
+public class CatalogReadModel implements DisposableBean {
+
+    private BookRepository bookRepository;
+    private ShelfRepository shelfRepository;
+    private RoomRepository roomRepository;
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private StatusTypeRepository statusTypeRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private boolean enabled;
+    private Duration checkInterval;
+    private int checkSample;
+    private Object writeLock = new Object();
+    private List<CatalogChangeEvent> changedDuringRebuild = new ArrayList<>();
+    private volatile CatalogSnapshot current;
+    private boolean rebuilding;
+    private ScheduledExecutorService executor;
+
+    public CatalogReadModel(BookRepository bookRepository, ShelfRepository shelfRepository,
+                            RoomRepository roomRepository, AuthorRepository authorRepository,
+                            PublisherRepository publisherRepository, StatusTypeRepository statusTypeRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${catalog.read-model.enabled:false}") boolean enabled,
+                            @Value("${catalog.read-model.check-interval:5m}") Duration checkInterval,
+                            @Value("${catalog.read-model.check-sample:100}") int checkSample) {
+        this.bookRepository = bookRepository;
+        this.shelfRepository = shelfRepository;
+        this.roomRepository = roomRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.statusTypeRepository = statusTypeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.checkInterval = checkInterval;
+        this.checkSample = checkSample;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!this.enabled) {
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-read-model");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuildInBackground();
+        this.executor.scheduleWithFixedDelay(this::checkConsistency, this.checkInterval.toMillis(),
+                this.checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Empty until the first load finished, and always when the read model is disabled; callers then go to the database.
+    public Optional<CatalogSnapshot> snapshot() {
+        return Optional.ofNullable(this.current);
+    }
+
+    public <T> T read(Function<CatalogSnapshot, T> fromSnapshot, Supplier<T> fromDatabase) {
+        CatalogSnapshot snapshot = this.current;
+        return snapshot == null ? fromDatabase.get() : fromSnapshot.apply(snapshot);
+    }
+
+    public Future<?> rebuildInBackground() {
+        if (this.executor == null) {
+            throw new IllegalStateException("The catalog read model is not enabled");
+        }
+        return this.executor.submit(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Loading the catalog read model failed", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!this.enabled) {
+            return;
+        }
+        synchronized (this.writeLock) {
+            if (this.rebuilding) {
+                this.changedDuringRebuild.add(event);
+            }
+            if (this.current != null) {
+                try {
+                    this.current = apply(this.current, event);
+                } catch (RuntimeException e) {
+                    // Better to read from the database than to answer from a snapshot that missed a change.
+                    log.warn("Applying a {} change to the catalog read model failed; reloading",
+                            event.getType().getSimpleName(), e);
+                    this.current = null;
+                    rebuildInBackground();
+                }
+            }
+        }
+    }
+
+    synchronized void rebuild() {
+        synchronized (this.writeLock) {
+            this.changedDuringRebuild.clear();
+            this.rebuilding = true;
+        }
+        CatalogSnapshot loaded;
+        try {
+            loaded = this.readOnlyTransaction.execute(status -> CatalogSnapshot.of(
+                    this.authorRepository.findAll(), this.publisherRepository.findAll(), this.roomRepository.findAll(),
+                    this.statusTypeRepository.findAll(), this.shelfRepository.findAll(), this.bookRepository.findAll()));
+        } catch (RuntimeException e) {
+            synchronized (this.writeLock) {
+                this.rebuilding = false;
+            }
+            throw e;
+        }
+        // Changes committed while the catalog was being read may or may not be in it, so they are reapplied.
+        synchronized (this.writeLock) {
+            try {
+                CatalogSnapshot next = loaded;
+                for (CatalogChangeEvent event : this.changedDuringRebuild) {
+                    next = apply(next, event);
+                }
+                this.current = next;
+            } finally {
+                this.changedDuringRebuild.clear();
+                this.rebuilding = false;
+            }
+        }
+        log.info("Catalog read model loaded with {} books", loaded.size(Book.class));
+    }
+
+    void checkConsistency() {
+        try {
+            if (this.current != null && !isConsistent()) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Checking the catalog read model failed", e);
+        }
+    }
+
+    // Counts catch lost creations and deletions, a random sample of books catches lost updates.
+    private boolean isConsistent() {
+        synchronized (this.writeLock) {
+            CatalogSnapshot snapshot = this.current;
+            return Boolean.TRUE.equals(this.readOnlyTransaction.execute(status -> {
+                Map<Class<?>, Long> counts = Map.of(
+                        Book.class, this.bookRepository.count(),
+                        Shelf.class, this.shelfRepository.count(),
+                        Room.class, this.roomRepository.count(),
+                        Author.class, this.authorRepository.count(),
+                        Publisher.class, this.publisherRepository.count(),
+                        StatusType.class, this.statusTypeRepository.count());
+                for (Map.Entry<Class<?>, Long> count : counts.entrySet()) {
+                    if (snapshot.size(count.getKey()) != count.getValue()) {
+                        log.warn("Catalog read model has {} {} rows, the database {}; reloading",
+                                snapshot.size(count.getKey()), count.getKey().getSimpleName(), count.getValue());
+                        return false;
+                    }
+                }
+                List<Integer> sample = sample(snapshot.bookIds());
+                for (Book book : this.bookRepository.findByIdIn(sample)) {
+                    if (!snapshot.bookEntry(book.getId()).equals(Optional.of(CatalogSnapshot.BookEntry.of(book)))) {
+                        log.warn("Catalog read model differs from the database for book {}; reloading", book.getId());
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+    }
+
+    private List<Integer> sample(List<Integer> ids) {
+        if (ids.size() <= this.checkSample) {
+            return ids;
+        }
+        Collections.shuffle(ids, ThreadLocalRandom.current());
+        return ids.subList(0, this.checkSample);
+    }
+
+    private CatalogSnapshot apply(CatalogSnapshot snapshot, CatalogChangeEvent event) {
+        Collection<Integer> ids = event.getIds();
+        boolean deleted = event.getKind() == CatalogChangeEvent.Kind.DELETED;
+        if (event.isAbout(Book.class)) {
+            return snapshot.withBooks(ids, deleted ? List.of() : this.bookRepository.findByIdIn(ids));
+        }
+        if (event.isAbout(Status.class)) {
+            // A status is created and deleted together with its book, only direct edits need the book reloaded.
+            if (event.getKind() != CatalogChangeEvent.Kind.UPDATED) {
+                return snapshot;
+            }
+            List<Book> books = this.bookRepository.findByStatusIdIn(ids);
+            return snapshot.withBooks(books.stream().map(Book::getId).collect(Collectors.toList()), books);
+        }
+        if (event.isAbout(Shelf.class)) {
+            return snapshot.withShelves(ids, deleted ? List.of() : this.shelfRepository.findAllById(ids));
+        }
+        if (event.isAbout(Author.class)) {
+            return snapshot.withNames(Author.class, ids, deleted ? Map.of()
+                    : CatalogSnapshot.names(this.authorRepository.findAllById(ids), Author::getId, Author::getName));
+        }
+        if (event.isAbout(Publisher.class)) {
+            return snapshot.withNames(Publisher.class, ids, deleted ? Map.of()
+                    : CatalogSnapshot.names(this.publisherRepository.findAllById(ids), Publisher::getId, Publisher::getName));
+        }
+        if (event.isAbout(Room.class)) {
+            return snapshot.withNames(Room.class, ids, deleted ? Map.of()
+                    : CatalogSnapshot.names(this.roomRepository.findAllById(ids), Room::getId, Room::getName));
+        }
+        if (event.isAbout(StatusType.class)) {
+            return snapshot.withNames(StatusType.class, ids, deleted ? Map.of()
+                    : CatalogSnapshot.names(this.statusTypeRepository.findAllById(ids), StatusType::getId, StatusType::getName));
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void destroy() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookRowDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RoomDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, id-indexed copy of the catalog. Changes never touch an existing snapshot, they produce a new one that
+ * shares every map the change did not affect. Readers get freshly built entities, so nothing they do to a response
+ * can leak back into the snapshot.
+ */
+public final class CatalogSnapshot {
+
+    private final Map<Integer, String> authors;
+    private final Map<Integer, String> publishers;
+    private final Map<Integer, String> rooms;
+    private final Map<Integer, String> statusTypes;
+    private final NavigableMap<Integer, ShelfEntry> shelves;
+    private final NavigableMap<Integer, BookEntry> books;
+    private final Map<Integer, NavigableSet<Integer>> bookIdsByShelf;
+
+    private CatalogSnapshot(Map<Integer, String> authors, Map<Integer, String> publishers, Map<Integer, String> rooms,
+                            Map<Integer, String> statusTypes, NavigableMap<Integer, ShelfEntry> shelves,
+                            NavigableMap<Integer, BookEntry> books, Map<Integer, NavigableSet<Integer>> bookIdsByShelf) {
+        this.authors = authors;
+        this.publishers = publishers;
+        this.rooms = rooms;
+        this.statusTypes = statusTypes;
+        this.shelves = shelves;
+        this.books = books;
+        this.bookIdsByShelf = bookIdsByShelf;
+    }
+
+    static CatalogSnapshot of(Collection<Author> authors, Collection<Publisher> publishers, Collection<Room> rooms,
+                              Collection<StatusType> statusTypes, Collection<Shelf> shelves, Collection<Book> books) {
+        NavigableMap<Integer, BookEntry> bookEntries = new TreeMap<>();
+        books.forEach(book -> bookEntries.put(book.getId(), BookEntry.of(book)));
+        Map<Integer, NavigableSet<Integer>> bookIdsByShelf = new HashMap<>();
+        bookEntries.values().stream().filter(book -> book.idShelf() != null)
+                .forEach(book -> bookIdsByShelf.computeIfAbsent(book.idShelf(), id -> new TreeSet<>()).add(book.id()));
+        return new CatalogSnapshot(
+                names(authors, Author::getId, Author::getName),
+                names(publishers, Publisher::getId, Publisher::getName),
+                names(rooms, Room::getId, Room::getName),
+                names(statusTypes, StatusType::getId, StatusType::getName),
+                shelves.stream().map(ShelfEntry::of)
+                        .collect(Collectors.toMap(ShelfEntry::id, shelf -> shelf, (a, b) -> b, TreeMap::new)),
+                bookEntries,
+                bookIdsByShelf);
+    }
+
+    CatalogSnapshot withNames(Class<?> type, Collection<Integer> ids, Map<Integer, String> names) {
+        Map<Integer, String> changed = new HashMap<>(namesOf(type));
+        ids.forEach(changed::remove);
+        changed.putAll(names);
+        return new CatalogSnapshot(
+                type == Author.class ? changed : this.authors,
+                type == Publisher.class ? changed : this.publishers,
+                type == Room.class ? changed : this.rooms,
+                type == StatusType.class ? changed : this.statusTypes,
+                this.shelves, this.books, this.bookIdsByShelf);
+    }
+
+    CatalogSnapshot withShelves(Collection<Integer> ids, Collection<Shelf> shelves) {
+        NavigableMap<Integer, ShelfEntry> changed = new TreeMap<>(this.shelves);
+        ids.forEach(changed::remove);
+        shelves.forEach(shelf -> changed.put(shelf.getId(), ShelfEntry.of(shelf)));
+        return new CatalogSnapshot(this.authors, this.publishers, this.rooms, this.statusTypes, changed, this.books,
+                this.bookIdsByShelf);
+    }
+
+    CatalogSnapshot withBooks(Collection<Integer> ids, Collection<Book> books) {
+        NavigableMap<Integer, BookEntry> changed = new TreeMap<>(this.books);
+        Map<Integer, NavigableSet<Integer>> bookIdsByShelf = new HashMap<>(this.bookIdsByShelf);
+        Set<Integer> copiedShelves = new HashSet<>();
+        for (Integer id : ids) {
+            BookEntry removed = changed.remove(id);
+            if (removed != null && removed.idShelf() != null) {
+                shelfBookIds(bookIdsByShelf, copiedShelves, removed.idShelf()).remove(id);
+            }
+        }
+        for (Book book : books) {
+            BookEntry entry = BookEntry.of(book);
+            BookEntry removed = changed.put(entry.id(), entry);
+            if (removed != null && removed.idShelf() != null) {
+                shelfBookIds(bookIdsByShelf, copiedShelves, removed.idShelf()).remove(entry.id());
+            }
+            if (entry.idShelf() != null) {
+                shelfBookIds(bookIdsByShelf, copiedShelves, entry.idShelf()).add(entry.id());
+            }
+        }
+        bookIdsByShelf.values().removeIf(Set::isEmpty);
+        return new CatalogSnapshot(this.authors, this.publishers, this.rooms, this.statusTypes, this.shelves, changed,
+                bookIdsByShelf);
+    }
+
+    public Optional<Book> book(Integer id) {
+        return Optional.ofNullable(this.books.get(id)).map(this::book);
+    }
+
+    public List<Book> books() {
+        return this.books.values().stream().map(this::book).collect(Collectors.toList());
+    }
+
+    public List<Book> booksByShelf(Integer idShelf) {
+        return bookEntriesByShelf(idShelf).map(this::book).collect(Collectors.toList());
+    }
+
+    public List<Book> booksByRoom(Integer idRoom) {
+        return bookEntriesByRoom(idRoom).map(this::book).collect(Collectors.toList());
+    }
+
+    public List<BookRowDTO> bookRows() {
+        return this.books.values().stream().map(this::row).collect(Collectors.toList());
+    }
+
+    public List<BookRowDTO> bookRowsByShelf(Integer idShelf) {
+        return bookEntriesByShelf(idShelf).map(this::row).collect(Collectors.toList());
+    }
+
+    public List<BookRowDTO> bookRowsByRoom(Integer idRoom) {
+        return bookEntriesByRoom(idRoom).map(this::row).collect(Collectors.toList());
+    }
+
+    public Optional<Shelf> shelf(Integer id) {
+        return Optional.ofNullable(this.shelves.get(id)).map(this::shelf);
+    }
+
+    public List<Shelf> shelves() {
+        return this.shelves.values().stream().map(this::shelf).collect(Collectors.toList());
+    }
+
+    public List<Shelf> shelvesByRoom(Integer idRoom) {
+        return this.shelves.values().stream().filter(shelf -> Objects.equals(shelf.idRoom(), idRoom))
+                .map(this::shelf).collect(Collectors.toList());
+    }
+
+    public List<ShelfRowDTO> shelfRows() {
+        return this.shelves.values().stream()
+                .map(shelf -> new ShelfRowDTO(shelf.id(), shelf.letter(), shelf.number(), shelf.idRoom(),
+                        shelf.idRoom() == null ? null : this.rooms.get(shelf.idRoom()),
+                        (long) this.bookIdsByShelf.getOrDefault(shelf.id(), Collections.emptyNavigableSet()).size()))
+                .collect(Collectors.toList());
+    }
+
+    public Optional<Room> room(Integer id) {
+        return this.rooms.containsKey(id) ? Optional.of(new Room(id, this.rooms.get(id))) : Optional.empty();
+    }
+
+    // The room table is covered by its unique name index, so the database lists rooms by name as well.
+    public List<Room> rooms() {
+        return roomsByName().map(room -> new Room(room.getKey(), room.getValue())).collect(Collectors.toList());
+    }
+
+    public List<RoomDTO> roomRows() {
+        Map<Integer, Integer> noShelves = new HashMap<>();
+        Map<Integer, Integer> noBooks = new HashMap<>();
+        this.shelves.values().stream().filter(shelf -> shelf.idRoom() != null).forEach(shelf -> {
+            noShelves.merge(shelf.idRoom(), 1, Integer::sum);
+            noBooks.merge(shelf.idRoom(),
+                    this.bookIdsByShelf.getOrDefault(shelf.id(), Collections.emptyNavigableSet()).size(), Integer::sum);
+        });
+        return roomsByName()
+                .map(room -> RoomDTO.builder()
+                        .id(room.getKey())
+                        .name(room.getValue())
+                        .noBooks(noBooks.getOrDefault(room.getKey(), 0))
+                        .noShelves(noShelves.getOrDefault(room.getKey(), 0))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private Stream<Map.Entry<Integer, String>> roomsByName() {
+        return this.rooms.entrySet().stream().sorted(Map.Entry.comparingByValue());
+    }
+
+    int size(Class<?> type) {
+        if (type == Book.class) {
+            return this.books.size();
+        }
+        if (type == Shelf.class) {
+            return this.shelves.size();
+        }
+        return namesOf(type).size();
+    }
+
+    Optional<BookEntry> bookEntry(Integer id) {
+        return Optional.ofNullable(this.books.get(id));
+    }
+
+    List<Integer> bookIds() {
+        return new ArrayList<>(this.books.keySet());
+    }
+
+    private Stream<BookEntry> bookEntriesByShelf(Integer idShelf) {
+        return this.bookIdsByShelf.getOrDefault(idShelf, Collections.emptyNavigableSet()).stream().map(this.books::get);
+    }
+
+    private Stream<BookEntry> bookEntriesByRoom(Integer idRoom) {
+        Set<Integer> shelfIds = this.shelves.values().stream().filter(shelf -> Objects.equals(shelf.idRoom(), idRoom))
+                .map(ShelfEntry::id).collect(Collectors.toSet());
+        return this.books.values().stream().filter(book -> shelfIds.contains(book.idShelf()));
+    }
+
+    private Map<Integer, String> namesOf(Class<?> type) {
+        if (type == Author.class) {
+            return this.authors;
+        }
+        if (type == Publisher.class) {
+            return this.publishers;
+        }
+        if (type == Room.class) {
+            return this.rooms;
+        }
+        if (type == StatusType.class) {
+            return this.statusTypes;
+        }
+        throw new IllegalArgumentException("Not a named catalog type: " + type.getSimpleName());
+    }
+
+    private Book book(BookEntry entry) {
+        return Book.builder()
+                .id(entry.id())
+                .name(entry.name())
+                .author(entry.idAuthor() == null ? null : new Author(entry.idAuthor(), this.authors.get(entry.idAuthor())))
+                .publisher(entry.idPublisher() == null ? null
+                        : new Publisher(entry.idPublisher(), this.publishers.get(entry.idPublisher())))
+                .shelf(entry.idShelf() == null ? null : shelf(this.shelves.getOrDefault(entry.idShelf(),
+                        new ShelfEntry(entry.idShelf(), null, null, null))))
+                .status(entry.status() == null ? null : Status.builder()
+                        .id(entry.status().id())
+                        .statusType(entry.status().idStatusType() == null ? null : new StatusType(
+                                entry.status().idStatusType(), this.statusTypes.get(entry.status().idStatusType())))
+                        .dateUp(entry.status().dateUp() == null ? null : new Date(entry.status().dateUp()))
+                        .comment(entry.status().comment())
+                        .build())
+                .build();
+    }
+
+    private Shelf shelf(ShelfEntry entry) {
+        return Shelf.builder()
+                .id(entry.id())
+                .letter(entry.letter())
+                .number(entry.number())
+                .room(entry.idRoom() == null ? null : new Room(entry.idRoom(), this.rooms.get(entry.idRoom())))
+                .build();
+    }
+
+    private BookRowDTO row(BookEntry entry) {
+        Integer idRoom = entry.idShelf() == null || !this.shelves.containsKey(entry.idShelf()) ? null
+                : this.shelves.get(entry.idShelf()).idRoom();
+        Integer idStatusType = entry.status() == null ? null : entry.status().idStatusType();
+        return new BookRowDTO(entry.id(), entry.name(),
+                entry.idAuthor(), entry.idAuthor() == null ? null : this.authors.get(entry.idAuthor()),
+                entry.idPublisher(), entry.idPublisher() == null ? null : this.publishers.get(entry.idPublisher()),
+                entry.idShelf(), idRoom, idRoom == null ? null : this.rooms.get(idRoom),
+                idStatusType, idStatusType == null ? null : this.statusTypes.get(idStatusType));
+    }
+
+    private static NavigableSet<Integer> shelfBookIds(Map<Integer, NavigableSet<Integer>> bookIdsByShelf,
+                                                      Set<Integer> copiedShelves, Integer idShelf) {
+        if (copiedShelves.add(idShelf)) {
+            return bookIdsByShelf.compute(idShelf, (id, bookIds) -> bookIds == null ? new TreeSet<>() : new TreeSet<>(bookIds));
+        }
+        return bookIdsByShelf.get(idShelf);
+    }
+
+    static <T> Map<Integer, String> names(Collection<T> entities, Function<T, Integer> id,
+                                          Function<T, String> name) {
+        Map<Integer, String> names = new HashMap<>();
+        entities.forEach(entity -> names.put(id.apply(entity), name.apply(entity)));
+        return names;
+    }
+
+    record ShelfEntry(Integer id, String letter, Integer number, Integer idRoom) {
+
+        static ShelfEntry of(Shelf shelf) {
+            return new ShelfEntry(shelf.getId(), shelf.getLetter(), shelf.getNumber(),
+                    shelf.getRoom() == null ? null : shelf.getRoom().getId());
+        }
+    }
+
+    record StatusEntry(Integer id, Integer idStatusType, Long dateUp, String comment) {
+    }
+
+    record BookEntry(Integer id, String name, Integer idAuthor, Integer idPublisher, Integer idShelf,
+                     StatusEntry status) {
+
+        static BookEntry of(Book book) {
+            Status status = book.getStatus();
+            return new BookEntry(book.getId(), book.getName(),
+                    book.getAuthor() == null ? null : book.getAuthor().getId(),
+                    book.getPublisher() == null ? null : book.getPublisher().getId(),
+                    book.getShelf() == null ? null : book.getShelf().getId(),
+                    status == null ? null : new StatusEntry(status.getId(),
+                            status.getStatusType() == null ? null : status.getStatusType().getId(),
+                            status.getDateUp() == null ? null : status.getDateUp().getTime(),
+                            status.getComment()));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.CatalogStatsDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog statistics from one aggregate query per figure, kept until a change to any of the counted types is
+ * published; dashboards polling an unchanged catalog never reach the database.
+ */
+@Service
+public class CatalogStatsService {
+
+    private static final Class<?>[] TYPES = {Book.class, Status.class, Shelf.class, Room.class, Author.class, Publisher.class,
+            StatusType.class};
+
+    private BookRepository bookRepository;
+    private ShelfRepository shelfRepository;
+    private RoomRepository roomRepository;
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private StatusTypeRepository statusTypeRepository;
+    private StatusHistoryRepository statusHistoryRepository;
+    private CatalogVersions catalogVersions;
+    private TransactionTemplate readOnlyTransaction;
+    private volatile CachedStats cached;
+
+    public CatalogStatsService(BookRepository bookRepository, ShelfRepository shelfRepository,
+                               RoomRepository roomRepository, AuthorRepository authorRepository,
+                               PublisherRepository publisherRepository, StatusTypeRepository statusTypeRepository,
+                               StatusHistoryRepository statusHistoryRepository, CatalogVersions catalogVersions,
+                               PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.shelfRepository = shelfRepository;
+        this.roomRepository = roomRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.statusTypeRepository = statusTypeRepository;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.catalogVersions = catalogVersions;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public CatalogStatsDTO getStats() {
+        CachedStats stats = this.cached;
+        if (stats != null && stats.version() == version()) {
+            return stats.stats();
+        }
+        return compute();
+    }
+
+    private synchronized CatalogStatsDTO compute() {
+        // Read before querying: a change committing meanwhile moves the version on and the next call recomputes.
+        long version = version();
+        CachedStats stats = this.cached;
+        if (stats != null && stats.version() == version) {
+            return stats.stats();
+        }
+        CatalogStatsDTO computed = this.readOnlyTransaction.execute(status -> {
+            List<ShelfRowDTO> shelves = this.shelfRepository.findRows();
+            return new CatalogStatsDTO(
+                    this.bookRepository.count(),
+                    this.roomRepository.countBooksPerRoom(),
+                    shelves,
+                    this.statusTypeRepository.countBooksPerStatusType(),
+                    this.authorRepository.countBooksPerAuthor(),
+                    this.publisherRepository.countBooksPerPublisher(),
+                    CatalogStatsDTO.ShelfFill.of(shelves),
+                    this.statusHistoryRepository.countBooksAddedPerMonth().stream()
+                            .map(CatalogStatsDTO.MonthRow::of).collect(Collectors.toList()));
+        });
+        this.cached = new CachedStats(version, computed);
+        return computed;
+    }
+
+    private long version() {
+        long version = 0;
+        for (Class<?> type : TYPES) {
+            version += this.catalogVersions.version(type);
+        }
+        return version;
+    }
+
+    private record CachedStats(long version, CatalogStatsDTO stats) {
+    }
+}
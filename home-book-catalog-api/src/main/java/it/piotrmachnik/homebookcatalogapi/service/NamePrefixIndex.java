@@ -0,0 +1,106 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+public class NamePrefixIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Comparator<Entry> ORDER = Comparator.comparing((Entry entry) -> entry.key)
+            .thenComparing(entry -> entry.id);
+
+    // Readers only ever see a fully built array; writers replace it under the monitor.
+    private volatile Entry[] entries = new Entry[0];
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+
+    public List<NameSuggestionDTO> suggest(String prefix, int limit) {
+        Entry[] snapshot = this.entries;
+        String key = normalize(prefix);
+        List<NameSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, snapshot.length));
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && suggestions.size() < limit; i++) {
+            if (!snapshot[i].key.startsWith(key)) {
+                break;
+            }
+            suggestions.add(new NameSuggestionDTO(snapshot[i].id, snapshot[i].name));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    public synchronized void replaceAll(Map<Integer, String> names) {
+        this.entriesById.clear();
+        names.forEach((id, name) -> this.entriesById.put(id, new Entry(id, name)));
+        Entry[] rebuilt = this.entriesById.values().toArray(new Entry[0]);
+        Arrays.sort(rebuilt, ORDER);
+        this.entries = rebuilt;
+    }
+
+    public synchronized void put(Integer id, String name) {
+        Entry entry = new Entry(id, name);
+        Entry previous = this.entriesById.put(id, entry);
+        Entry[] current = previous == null ? this.entries : without(this.entries, previous);
+        Entry[] updated = new Entry[current.length + 1];
+        int at = -Arrays.binarySearch(current, entry, ORDER) - 1;
+        System.arraycopy(current, 0, updated, 0, at);
+        updated[at] = entry;
+        System.arraycopy(current, at, updated, at + 1, current.length - at);
+        this.entries = updated;
+    }
+
+    public synchronized void remove(Integer id) {
+        Entry previous = this.entriesById.remove(id);
+        if (previous != null) {
+            this.entries = without(this.entries, previous);
+        }
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name.replace('ł', 'l').replace('Ł', 'L'), Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        int at = Arrays.binarySearch(entries, entry, ORDER);
+        Entry[] updated = new Entry[entries.length - 1];
+        System.arraycopy(entries, 0, updated, 0, at);
+        System.arraycopy(entries, at + 1, updated, at, entries.length - at - 1);
+        return updated;
+    }
+
+    private static int lowerBound(Entry[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle].key.compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static final class Entry {
+        private final Integer id;
+        private final String name;
+        private final String key;
+
+        private Entry(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+            this.key = normalize(name);
+        }
+    }
+}
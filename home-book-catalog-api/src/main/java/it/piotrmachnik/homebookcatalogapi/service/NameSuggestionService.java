@@ -0,0 +1,96 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.model.Author;
+import it.piotrmachnik.homebookcatalogapi.model.Publisher;
+import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.AuthorRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.PublisherRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.RoomRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class NameSuggestionService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private AuthorRepository authorRepository;
+    private PublisherRepository publisherRepository;
+    private RoomRepository roomRepository;
+    private NamePrefixIndex authors = new NamePrefixIndex();
+    private NamePrefixIndex publishers = new NamePrefixIndex();
+    private NamePrefixIndex rooms = new NamePrefixIndex();
+
+    public NameSuggestionService(AuthorRepository authorRepository, PublisherRepository publisherRepository,
+                                 RoomRepository roomRepository) {
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        Map<Integer, String> authorNames = new HashMap<>();
+        this.authorRepository.findAll().forEach(author -> authorNames.put(author.getId(), author.getName()));
+        this.authors.replaceAll(authorNames);
+        Map<Integer, String> publisherNames = new HashMap<>();
+        this.publisherRepository.findAll().forEach(publisher -> publisherNames.put(publisher.getId(), publisher.getName()));
+        this.publishers.replaceAll(publisherNames);
+        Map<Integer, String> roomNames = new HashMap<>();
+        this.roomRepository.findAll().forEach(room -> roomNames.put(room.getId(), room.getName()));
+        this.rooms.replaceAll(roomNames);
+    }
+
+    public List<NameSuggestionDTO> suggestAuthors(String prefix, int limit) {
+        return this.authors.suggest(prefix, clamp(limit));
+    }
+
+    public List<NameSuggestionDTO> suggestPublishers(String prefix, int limit) {
+        return this.publishers.suggest(prefix, clamp(limit));
+    }
+
+    public List<NameSuggestionDTO> suggestRooms(String prefix, int limit) {
+        return this.rooms.suggest(prefix, clamp(limit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.isAbout(Author.class)) {
+            if (event.getKind() == CatalogChangeEvent.Kind.DELETED) {
+                event.getIds().forEach(this.authors::remove);
+            } else {
+                this.authorRepository.findAllById(event.getIds())
+                        .forEach(author -> this.authors.put(author.getId(), author.getName()));
+            }
+        } else if (event.isAbout(Publisher.class)) {
+            if (event.getKind() == CatalogChangeEvent.Kind.DELETED) {
+                event.getIds().forEach(this.publishers::remove);
+            } else {
+                this.publisherRepository.findAllById(event.getIds())
+                        .forEach(publisher -> this.publishers.put(publisher.getId(), publisher.getName()));
+            }
+        } else if (event.isAbout(Room.class)) {
+            if (event.getKind() == CatalogChangeEvent.Kind.DELETED) {
+                event.getIds().forEach(this.rooms::remove);
+            } else {
+                this.roomRepository.findAllById(event.getIds())
+                        .forEach(room -> this.rooms.put(room.getId(), room.getName()));
+            }
+        }
+    }
+
+    private static int clamp(int limit) {
+        if (limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
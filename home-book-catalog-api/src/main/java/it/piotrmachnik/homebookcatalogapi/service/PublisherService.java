@@ -1,37 +1,40 @@
 package it.piotrmachnik.homebookcatalogapi.service;
 
 import it.piotrmachnik.homebookcatalogapi.model.Publisher;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.PublisherDTO;
-import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.PublisherRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PublisherService {
     private PublisherRepository publisherRepository;
-    private BookRepository bookRepository;
 
-    public PublisherService(PublisherRepository publisherRepository, BookRepository bookRepository) {
+    public PublisherService(PublisherRepository publisherRepository) {
         this.publisherRepository = publisherRepository;
-        this.bookRepository = bookRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<PublisherDTO> getPublishersForAngular() {
         List<Publisher> publishers  =  this.publisherRepository.findAll();
+        Map<Integer, Long> noBooks = IdCount.toMap(this.publisherRepository.findBookCounters());
         List<PublisherDTO> publishersDTO = new ArrayList<>();
         publishers.stream().forEach(publisher -> {
             publishersDTO.add(PublisherDTO.builder()
                     .id(publisher.getId())
                     .name(publisher.getName())
-                    .noBooks((int)this.bookRepository.findByPublisherId(publisher.getId()).stream().count())
+                    .noBooks(noBooks.getOrDefault(publisher.getId(), 0L).intValue())
                     .build());
         });
         return publishersDTO;
     }
 
+    @Transactional
     public void updatePublisher(Integer id, Publisher newPartialPublisher) {
         this.publisherRepository.findById(id).ifPresent(publisher -> {
             if (newPartialPublisher.getName() != null) {
@@ -1,14 +1,23 @@
 package it.piotrmachnik.homebookcatalogapi.service;
 
+import it.piotrmachnik.homebookcatalogapi.event.CatalogChangeEvent;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
 import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.RoomDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.BookCounterRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.RoomRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.ShelfRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class RoomService {
@@ -16,27 +25,36 @@ public class RoomService {
     private RoomRepository roomRepository;
     private BookRepository bookRepository;
     private ShelfRepository shelfRepository;
+    private BookCounterRepository bookCounterRepository;
+    private ApplicationEventPublisher eventPublisher;
 
-    public RoomService(RoomRepository roomRepository, BookRepository bookRepository, ShelfRepository shelfRepository) {
+    public RoomService(RoomRepository roomRepository, BookRepository bookRepository, ShelfRepository shelfRepository,
+                       BookCounterRepository bookCounterRepository, ApplicationEventPublisher eventPublisher) {
         this.roomRepository = roomRepository;
         this.bookRepository = bookRepository;
         this.shelfRepository = shelfRepository;
+        this.bookCounterRepository = bookCounterRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<RoomDTO> getRoomsForAngular() {
         List<Room> rooms  =  this.roomRepository.findAll();
+        Map<Integer, Long> noBooks = IdCount.toMap(this.roomRepository.findBookCounters());
+        Map<Integer, Long> noShelves = IdCount.toMap(this.shelfRepository.countShelvesGroupByRoom());
         List<RoomDTO> roomsDTO = new ArrayList<>();
         rooms.stream().forEach(room -> {
             roomsDTO.add(RoomDTO.builder()
                     .id(room.getId())
                     .name(room.getName())
-                    .noBooks((int)this.bookRepository.findByShelfRoomId(room.getId()).stream().count())
-                    .noShelves((int)this.shelfRepository.findByRoomId(room.getId()).stream().count())
+                    .noBooks(noBooks.getOrDefault(room.getId(), 0L).intValue())
+                    .noShelves(noShelves.getOrDefault(room.getId(), 0L).intValue())
                     .build());
         });
         return roomsDTO;
     }
 
+    @Transactional
     public void updateRoom(Integer id, Room newPartialRoom) {
         this.roomRepository.findById(id).ifPresent(room -> {
             if (newPartialRoom.getName() != null) {
@@ -46,4 +64,29 @@ public class RoomService {
             this.roomRepository.save(room);
         });
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public RelocationResultDTO mergeRoom(Integer id, Integer idInto) {
+        if (id.equals(idInto)) {
+            throw new IllegalArgumentException("Room " + id + " cannot be merged into itself");
+        }
+        Room into = this.roomRepository.findById(idInto)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown room: " + idInto));
+        if (!this.roomRepository.existsById(id)) {
+            throw new IllegalArgumentException("Unknown room: " + id);
+        }
+        List<Integer> shelfIds = this.shelfRepository.findIdsByRoomId(id);
+        List<Integer> bookIds = this.bookRepository.findIdsByShelfRoomId(id);
+        this.bookCounterRepository.moveRoom(id, idInto);
+        int shelves = shelfIds.isEmpty() ? 0 : this.shelfRepository.moveShelvesFromRoom(id, into);
+        // Bulk updates bypass the entity listeners, and the books change room along with their shelves.
+        if (!shelfIds.isEmpty()) {
+            this.eventPublisher.publishEvent(new CatalogChangeEvent(Shelf.class, CatalogChangeEvent.Kind.UPDATED, shelfIds));
+        }
+        if (!bookIds.isEmpty()) {
+            this.eventPublisher.publishEvent(new CatalogChangeEvent(Book.class, CatalogChangeEvent.Kind.UPDATED, bookIds));
+        }
+        this.roomRepository.deleteById(id);
+        return RelocationResultDTO.builder().books(bookIds.size()).shelves(shelves).build();
+    }
+}
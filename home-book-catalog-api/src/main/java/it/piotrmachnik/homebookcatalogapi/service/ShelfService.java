@@ -2,13 +2,13 @@ package it.piotrmachnik.homebookcatalogapi.service;
 
 import it.piotrmachnik.homebookcatalogapi.model.Room;
 import it.piotrmachnik.homebookcatalogapi.model.Shelf;
-import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfDTO;
-import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.RelocationResultDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
 import it.piotrmachnik.homebookcatalogapi.repository.RoomRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.ShelfRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,29 +17,20 @@ public class ShelfService {
 
     private ShelfRepository shelfRepository;
     private RoomRepository roomRepository;
-    private BookRepository bookRepository;
+    private BookService bookService;
 
-    public ShelfService(ShelfRepository shelfRepository, RoomRepository roomRepository, BookRepository bookRepository) {
+    public ShelfService(ShelfRepository shelfRepository, RoomRepository roomRepository, BookService bookService) {
         this.shelfRepository = shelfRepository;
         this.roomRepository = roomRepository;
-        this.bookRepository = bookRepository;
+        this.bookService = bookService;
     }
 
-    public List<ShelfDTO> getShelvesForAngular() {
-        List<Shelf> shelves  =  this.shelfRepository.findAll();
-        List<ShelfDTO> shelvesDTO = new ArrayList<>();
-        shelves.stream().forEach(shelf -> {
-            shelvesDTO.add(ShelfDTO.builder()
-                    .id(shelf.getId())
-                    .letter(shelf.getLetter())
-                    .number(shelf.getNumber())
-                    .room(shelf.getRoom())
-                    .noBooks((int)this.bookRepository.findByShelfId(shelf.getId()).stream().count())
-                    .build());
-        });
-        return shelvesDTO;
+    @Transactional(readOnly = true)
+    public List<ShelfRowDTO> getShelvesForAngular() {
+        return this.shelfRepository.findRows();
     }
 
+    @Transactional
     public void updateShelf(Integer id, Shelf newPartialShelf) {
         this.shelfRepository.findById(id).ifPresent(shelf -> {
             if (newPartialShelf.getLetter() != null) {
@@ -58,6 +49,18 @@ public class ShelfService {
         });
     }
 
+    @Transactional
+    public RelocationResultDTO mergeShelf(Integer id, Integer idInto) {
+        Shelf into = this.shelfRepository.findById(idInto)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown shelf: " + idInto));
+        if (!this.shelfRepository.existsById(id)) {
+            throw new IllegalArgumentException("Unknown shelf: " + id);
+        }
+        int books = this.bookService.moveBooksFromShelf(id, into);
+        this.shelfRepository.deleteById(id);
+        return RelocationResultDTO.builder().books(books).build();
+    }
+
     public Shelf addShelf(Shelf shelf) {
         Optional<Room> roomAdded = Optional.ofNullable(shelf.getRoom());
         if (shelf.getRoom() != null) {
@@ -0,0 +1,58 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import it.piotrmachnik.homebookcatalogapi.model.StatusHistory;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NamedDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusChangeDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusDurationDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.StatusHistoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class StatusHistoryService {
+
+    private StatusHistoryRepository statusHistoryRepository;
+
+    public StatusHistoryService(StatusHistoryRepository statusHistoryRepository) {
+        this.statusHistoryRepository = statusHistoryRepository;
+    }
+
+    @Transactional
+    public void recordStatus(Book book) {
+        if (book.getStatus() != null) {
+            this.statusHistoryRepository.save(StatusHistory.of(book));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatusChangeDTO> getStatusHistory(Integer idBook) {
+        return this.statusHistoryRepository.findChangesByBook(idBook);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatusChangeDTO> getStatusChanges(Date from, Date to) {
+        if (from == null || to == null || !from.before(to)) {
+            throw new IllegalArgumentException("A range with from before to is required");
+        }
+        return this.statusHistoryRepository.findChangesBetween(from, to);
+    }
+
+    // A status lasts until the next change, the current one until now; a book can come back to a status.
+    @Transactional(readOnly = true)
+    public List<StatusDurationDTO> getStatusDurations(Integer idBook) {
+        List<StatusChangeDTO> changes = this.statusHistoryRepository.findChangesByBook(idBook);
+        long now = System.currentTimeMillis();
+        Map<NamedDTO, Long> millis = new LinkedHashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            long until = i + 1 < changes.size() ? changes.get(i + 1).dateFrom().getTime() : now;
+            millis.merge(changes.get(i).statusType(), Math.max(until - changes.get(i).dateFrom().getTime(), 0), Long::sum);
+        }
+        return millis.entrySet().stream()
+                .map(entry -> new StatusDurationDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
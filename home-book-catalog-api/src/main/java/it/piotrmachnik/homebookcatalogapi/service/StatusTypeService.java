@@ -1,38 +1,41 @@
 package it.piotrmachnik.homebookcatalogapi.service;
 
 import it.piotrmachnik.homebookcatalogapi.model.StatusType;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.IdCount;
 import it.piotrmachnik.homebookcatalogapi.modelDTO.StatusTypeDTO;
-import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
 import it.piotrmachnik.homebookcatalogapi.repository.StatusTypeRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class StatusTypeService {
 
     private StatusTypeRepository statusTypeRepository;
-    private BookRepository bookRepository;
 
-    public StatusTypeService(StatusTypeRepository statusTypeRepository, BookRepository bookRepository) {
+    public StatusTypeService(StatusTypeRepository statusTypeRepository) {
         this.statusTypeRepository = statusTypeRepository;
-        this.bookRepository = bookRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<StatusTypeDTO> getStatusTypesForAngular() {
         List<StatusType> statusTypes  =  this.statusTypeRepository.findAll();
+        Map<Integer, Long> noBooks = IdCount.toMap(this.statusTypeRepository.findBookCounters());
         List<StatusTypeDTO> statusTypesDTO = new ArrayList<>();
         statusTypes.stream().forEach(statusType -> {
             statusTypesDTO.add(StatusTypeDTO.builder()
                     .id(statusType.getId())
                     .name(statusType.getName())
-                    .noBooks((int)this.bookRepository.findByStatusStatusTypeId(statusType.getId()).stream().count())
+                    .noBooks(noBooks.getOrDefault(statusType.getId(), 0L).intValue())
                     .build());
         });
         return statusTypesDTO;
     }
 
+    @Transactional
     public void updateStatusType(Integer id, StatusType newPartialStatusType) {
         this.statusTypeRepository.findById(id).ifPresent(statusType -> {
             if (newPartialStatusType.getName() != null) {
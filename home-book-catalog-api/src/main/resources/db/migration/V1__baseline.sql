@@ -0,0 +1,59 @@
+-- Schema as Hibernate's ddl-auto=update derived it from the entities; databases created that way are
+-- baselined at this version and continue with V2.
+
+CREATE TABLE room (
+    id_room INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id_room)
+) ENGINE = InnoDB;
+
+CREATE TABLE author (
+    id_author INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id_author)
+) ENGINE = InnoDB;
+
+CREATE TABLE publisher (
+    id_publisher INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id_publisher)
+) ENGINE = InnoDB;
+
+CREATE TABLE status_type (
+    id_status_type INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id_status_type)
+) ENGINE = InnoDB;
+
+CREATE TABLE shelf (
+    id_shelf INT NOT NULL AUTO_INCREMENT,
+    letter VARCHAR(255),
+    number INT,
+    id_room INT,
+    PRIMARY KEY (id_shelf),
+    CONSTRAINT fk_shelf_room FOREIGN KEY (id_room) REFERENCES room (id_room)
+) ENGINE = InnoDB;
+
+CREATE TABLE status (
+    id_status INT NOT NULL AUTO_INCREMENT,
+    comment VARCHAR(255),
+    date_up DATETIME(6),
+    id_status_type INT,
+    PRIMARY KEY (id_status),
+    CONSTRAINT fk_status_status_type FOREIGN KEY (id_status_type) REFERENCES status_type (id_status_type)
+) ENGINE = InnoDB;
+
+CREATE TABLE book (
+    id_book INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    id_author INT,
+    id_publisher INT,
+    id_shelf INT,
+    id_status INT,
+    PRIMARY KEY (id_book),
+    CONSTRAINT uq_book_status UNIQUE (id_status),
+    CONSTRAINT fk_book_author FOREIGN KEY (id_author) REFERENCES author (id_author),
+    CONSTRAINT fk_book_publisher FOREIGN KEY (id_publisher) REFERENCES publisher (id_publisher),
+    CONSTRAINT fk_book_shelf FOREIGN KEY (id_shelf) REFERENCES shelf (id_shelf),
+    CONSTRAINT fk_book_status FOREIGN KEY (id_status) REFERENCES status (id_status)
+) ENGINE = InnoDB;
@@ -0,0 +1,52 @@
+-- Reference names become unique. Duplicates left behind by earlier versions are merged into the row
+-- with the lowest id before the constraints are added.
+
+UPDATE book SET id_author = (
+    SELECT MIN(keep.id_author) FROM author dup JOIN author keep ON keep.name = dup.name
+    WHERE dup.id_author = book.id_author)
+WHERE id_author IN (SELECT id_author FROM (
+    SELECT dup.id_author FROM author dup JOIN author keep ON keep.name = dup.name AND keep.id_author < dup.id_author) duplicates);
+DELETE FROM author WHERE id_author IN (SELECT id_author FROM (
+    SELECT dup.id_author FROM author dup JOIN author keep ON keep.name = dup.name AND keep.id_author < dup.id_author) duplicates);
+
+UPDATE book SET id_publisher = (
+    SELECT MIN(keep.id_publisher) FROM publisher dup JOIN publisher keep ON keep.name = dup.name
+    WHERE dup.id_publisher = book.id_publisher)
+WHERE id_publisher IN (SELECT id_publisher FROM (
+    SELECT dup.id_publisher FROM publisher dup JOIN publisher keep ON keep.name = dup.name AND keep.id_publisher < dup.id_publisher) duplicates);
+DELETE FROM publisher WHERE id_publisher IN (SELECT id_publisher FROM (
+    SELECT dup.id_publisher FROM publisher dup JOIN publisher keep ON keep.name = dup.name AND keep.id_publisher < dup.id_publisher) duplicates);
+
+UPDATE shelf SET id_room = (
+    SELECT MIN(keep.id_room) FROM room dup JOIN room keep ON keep.name = dup.name
+    WHERE dup.id_room = shelf.id_room)
+WHERE id_room IN (SELECT id_room FROM (
+    SELECT dup.id_room FROM room dup JOIN room keep ON keep.name = dup.name AND keep.id_room < dup.id_room) duplicates);
+DELETE FROM room WHERE id_room IN (SELECT id_room FROM (
+    SELECT dup.id_room FROM room dup JOIN room keep ON keep.name = dup.name AND keep.id_room < dup.id_room) duplicates);
+
+UPDATE status SET id_status_type = (
+    SELECT MIN(keep.id_status_type) FROM status_type dup JOIN status_type keep ON keep.name = dup.name
+    WHERE dup.id_status_type = status.id_status_type)
+WHERE id_status_type IN (SELECT id_status_type FROM (
+    SELECT dup.id_status_type FROM status_type dup JOIN status_type keep ON keep.name = dup.name AND keep.id_status_type < dup.id_status_type) duplicates);
+DELETE FROM status_type WHERE id_status_type IN (SELECT id_status_type FROM (
+    SELECT dup.id_status_type FROM status_type dup JOIN status_type keep ON keep.name = dup.name AND keep.id_status_type < dup.id_status_type) duplicates);
+
+-- findAuthorsByName, findPublisherByName, findRoomByName and findStatusTypeByName.
+ALTER TABLE author ADD CONSTRAINT uq_author_name UNIQUE (name);
+ALTER TABLE publisher ADD CONSTRAINT uq_publisher_name UNIQUE (name);
+ALTER TABLE room ADD CONSTRAINT uq_room_name UNIQUE (name);
+ALTER TABLE status_type ADD CONSTRAINT uq_status_type_name UNIQUE (name);
+
+-- findShelfByLetter and findShelfByNumber.
+CREATE INDEX idx_shelf_letter_number ON shelf (letter, number);
+CREATE INDEX idx_shelf_number ON shelf (number);
+
+-- Databases baselined at V1 never ran it, so the lookup indexes of the schema are all created here.
+CREATE INDEX idx_shelf_room ON shelf (id_room, id_shelf);
+CREATE INDEX idx_status_status_type ON status (id_status_type, id_status);
+CREATE INDEX idx_book_author_name ON book (id_author, name);
+CREATE INDEX idx_book_publisher_name ON book (id_publisher, name);
+CREATE INDEX idx_book_shelf_name ON book (id_shelf, name);
+CREATE INDEX idx_book_name ON book (name);
@@ -0,0 +1,31 @@
+-- Status changes are kept as an append-only log instead of being overwritten, and the current status type is
+-- copied onto the book so listings and filters no longer join status and status_type.
+
+CREATE TABLE status_history (
+    id_status_history BIGINT NOT NULL AUTO_INCREMENT,
+    id_book INT NOT NULL,
+    id_status_type INT,
+    date_from DATETIME(6) NOT NULL,
+    comment VARCHAR(255),
+    PRIMARY KEY (id_status_history),
+    CONSTRAINT fk_status_history_book FOREIGN KEY (id_book) REFERENCES book (id_book) ON DELETE CASCADE,
+    CONSTRAINT fk_status_history_status_type FOREIGN KEY (id_status_type) REFERENCES status_type (id_status_type)
+) ENGINE = InnoDB;
+
+-- History of one book in order, and the time spent in each of its statuses.
+CREATE INDEX idx_status_history_book_date ON status_history (id_book, date_from, id_status_history);
+-- Status changes between two dates.
+CREATE INDEX idx_status_history_date ON status_history (date_from, id_book);
+
+-- Only the current status survived so far, it starts each book's history.
+INSERT INTO status_history (id_book, id_status_type, date_from, comment)
+SELECT b.id_book, s.id_status_type, COALESCE(s.date_up, CURRENT_TIMESTAMP(6)), s.comment
+FROM book b JOIN status s ON s.id_status = b.id_status
+ORDER BY b.id_book;
+
+ALTER TABLE book ADD COLUMN id_status_type INT;
+UPDATE book SET id_status_type = (SELECT s.id_status_type FROM status s WHERE s.id_status = book.id_status);
+ALTER TABLE book ADD CONSTRAINT fk_book_status_type FOREIGN KEY (id_status_type) REFERENCES status_type (id_status_type);
+
+-- findByStatusTypeId, the status type filter and the count per status type.
+CREATE INDEX idx_book_status_type_name ON book (id_status_type, name);
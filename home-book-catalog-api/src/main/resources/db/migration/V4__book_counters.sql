@@ -0,0 +1,14 @@
+-- Book counts kept on the counted rows. The application adjusts them with relative updates on every write, and
+-- the counter repair job recomputes them from BOOK in batches.
+
+ALTER TABLE author ADD COLUMN no_books BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE publisher ADD COLUMN no_books BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE shelf ADD COLUMN no_books BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE room ADD COLUMN no_books BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE status_type ADD COLUMN no_books BIGINT NOT NULL DEFAULT 0;
+
+UPDATE author SET no_books = (SELECT COUNT(*) FROM book b WHERE b.id_author = author.id_author);
+UPDATE publisher SET no_books = (SELECT COUNT(*) FROM book b WHERE b.id_publisher = publisher.id_publisher);
+UPDATE shelf SET no_books = (SELECT COUNT(*) FROM book b WHERE b.id_shelf = shelf.id_shelf);
+UPDATE room SET no_books = (SELECT COUNT(*) FROM book b JOIN shelf s ON s.id_shelf = b.id_shelf WHERE s.id_room = room.id_room);
+UPDATE status_type SET no_books = (SELECT COUNT(*) FROM book b WHERE b.id_status_type = status_type.id_status_type);
@@ -0,0 +1,10 @@
+-- Advanced on the primary after every committed catalog write. Replication applies it after the write, so a replica
+-- whose copy has reached that beat has the write too and may serve reads again.
+
+CREATE TABLE replica_heartbeat (
+    id_replica_heartbeat INT NOT NULL,
+    beat BIGINT NOT NULL,
+    PRIMARY KEY (id_replica_heartbeat)
+) ENGINE = InnoDB;
+
+INSERT INTO replica_heartbeat (id_replica_heartbeat, beat) VALUES (1, 0);
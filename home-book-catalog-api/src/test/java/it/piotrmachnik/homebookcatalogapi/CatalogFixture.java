@@ -0,0 +1,105 @@
+package it.piotrmachnik.homebookcatalogapi;
+
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+/**
+ * Builds the catalog a test needs and empties it again. Import it with {@code @Import(CatalogFixture.class)} and
+ * register {@link Cleanup} with {@code @ExtendWith} to clear the catalog after every test.
+ */
+@Component
+public class CatalogFixture {
+
+    private final TransactionTemplate transactionTemplate;
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final PublisherRepository publisherRepository;
+    private final ShelfRepository shelfRepository;
+    private final RoomRepository roomRepository;
+    private final StatusTypeRepository statusTypeRepository;
+
+    public CatalogFixture(TransactionTemplate transactionTemplate, BookRepository bookRepository,
+                          AuthorRepository authorRepository, PublisherRepository publisherRepository,
+                          ShelfRepository shelfRepository, RoomRepository roomRepository,
+                          StatusTypeRepository statusTypeRepository) {
+        this.transactionTemplate = transactionTemplate;
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.publisherRepository = publisherRepository;
+        this.shelfRepository = shelfRepository;
+        this.roomRepository = roomRepository;
+        this.statusTypeRepository = statusTypeRepository;
+    }
+
+    public void seed(Runnable seed) {
+        this.transactionTemplate.executeWithoutResult(status -> seed.run());
+    }
+
+    public StatusType statusType(String name) {
+        return this.statusTypeRepository.save(new StatusType(name));
+    }
+
+    public Author author(String name) {
+        return this.authorRepository.save(new Author(name));
+    }
+
+    public Publisher publisher(String name) {
+        return this.publisherRepository.save(new Publisher(name));
+    }
+
+    public Room room(String name) {
+        return this.roomRepository.save(new Room(name));
+    }
+
+    // An unsaved room is saved together with the shelf.
+    public Shelf shelf(String letter, int number, Room room) {
+        return this.shelfRepository.save(Shelf.builder().letter(letter).number(number).room(room).build());
+    }
+
+    // Saved references are looked up by id, so entities kept from an earlier transaction can be passed in.
+    public Book book(String name, Author author, Publisher publisher, Shelf shelf, StatusType statusType) {
+        return save(Book.builder()
+                .name(name)
+                .author(author == null || author.getId() == null ? author
+                        : this.authorRepository.getReferenceById(author.getId()))
+                .publisher(publisher == null || publisher.getId() == null ? publisher
+                        : this.publisherRepository.getReferenceById(publisher.getId()))
+                .shelf(shelf == null || shelf.getId() == null ? shelf
+                        : this.shelfRepository.getReferenceById(shelf.getId()))
+                .status(Status.builder()
+                        .statusType(statusType == null || statusType.getId() == null ? statusType
+                                : this.statusTypeRepository.getReferenceById(statusType.getId()))
+                        .dateUp(new Date())
+                        .build())
+                .build());
+    }
+
+    public Book save(Book book) {
+        return this.bookRepository.save(book);
+    }
+
+    // Through the repositories, so the change events keep the shared caches and indexes in step.
+    public void clear() {
+        this.bookRepository.deleteAll();
+        this.shelfRepository.deleteAll();
+        this.roomRepository.deleteAll();
+        this.authorRepository.deleteAll();
+        this.publisherRepository.deleteAll();
+        this.statusTypeRepository.deleteAll();
+    }
+
+    public static class Cleanup implements AfterEachCallback {
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            SpringExtension.getApplicationContext(context).getBean(CatalogFixture.class).clear();
+        }
+    }
+}
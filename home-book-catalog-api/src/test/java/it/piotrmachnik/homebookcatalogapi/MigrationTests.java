@@ -0,0 +1,72 @@
+package it.piotrmachnik.homebookcatalogapi;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigrationTests {
+
+    private final DataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:migrations;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+
+    @Test
+    void mergesDuplicateNamesBeforeMakingThemUnique() {
+        Flyway.configure().dataSource(this.dataSource).target("1").cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(this.dataSource).target("1").load().migrate();
+        this.jdbcTemplate.update("insert into author (id_author, name) values (1, 'Lem'), (2, 'Lem'), (3, 'Tolkien')");
+        this.jdbcTemplate.update("insert into room (id_room, name) values (1, 'Study'), (2, 'Study')");
+        this.jdbcTemplate.update("insert into shelf (id_shelf, letter, number, id_room) values (1, 'A', 1, 2)");
+        this.jdbcTemplate.update("insert into book (id_book, name, id_author, id_shelf) values (1, 'Solaris', 2, 1), (2, 'Hobbit', 3, 1)");
+
+        Flyway.configure().dataSource(this.dataSource).load().migrate();
+
+        assertThat(this.jdbcTemplate.queryForList("select id_author from author order by id_author", Integer.class))
+                .containsExactly(1, 3);
+        assertThat(this.jdbcTemplate.queryForList("select id_author from book order by id_book", Integer.class))
+                .containsExactly(1, 3);
+        assertThat(this.jdbcTemplate.queryForObject("select id_room from shelf", Integer.class)).isEqualTo(1);
+        assertThatThrownBy(() -> this.jdbcTemplate.update("insert into author (name) values ('Lem')"))
+                .hasMessageContaining("UQ_AUTHOR_NAME");
+    }
+
+    @Test
+    void startsTheStatusHistoryWithTheCurrentStatus() {
+        Flyway.configure().dataSource(this.dataSource).target("2").cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(this.dataSource).target("2").load().migrate();
+        this.jdbcTemplate.update("insert into status_type (id_status_type, name) values (1, 'Read')");
+        this.jdbcTemplate.update("insert into status (id_status, id_status_type, date_up, comment) values (1, 1, '2024-01-01 10:00:00', 'Shelved')");
+        this.jdbcTemplate.update("insert into book (id_book, name, id_status) values (1, 'Solaris', 1), (2, 'Hobbit', null)");
+
+        Flyway.configure().dataSource(this.dataSource).load().migrate();
+
+        assertThat(this.jdbcTemplate.queryForList("select id_status_type from book order by id_book", Integer.class))
+                .containsExactly(1, null);
+        assertThat(this.jdbcTemplate.queryForMap("select id_book, id_status_type, comment from status_history"))
+                .containsEntry("ID_BOOK", 1).containsEntry("ID_STATUS_TYPE", 1).containsEntry("COMMENT", "Shelved");
+    }
+
+    @Test
+    void indexesDatabasesBaselinedFromTheFormerSchema() throws SQLException {
+        Flyway.configure().dataSource(this.dataSource).cleanDisabled(false).load().clean();
+        try (Connection connection = this.dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline.sql"));
+        }
+
+        Flyway.configure().dataSource(this.dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        assertThat(this.jdbcTemplate.queryForList("select lower(index_name) from information_schema.indexes",
+                String.class)).contains("idx_shelf_room", "idx_status_status_type", "idx_book_author_name",
+                "idx_book_publisher_name", "idx_book_shelf_name", "idx_book_name");
+    }
+}
@@ -0,0 +1,25 @@
+package it.piotrmachnik.homebookcatalogapi;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class QueryCounter {
+
+    private final Statistics statistics;
+
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public void reset() {
+        this.statistics.clear();
+    }
+
+    public long statements() {
+        return this.statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,37 @@
+package it.piotrmachnik.homebookcatalogapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("startup")
+class StartupProfileTests {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void migratesEagerlyAndCreatesControllersOnFirstRequest() throws Exception {
+        ConfigurableListableBeanFactory beanFactory = this.context.getBeanFactory();
+        assertThat(beanFactory.containsSingleton("flywayInitializer")).isTrue();
+        assertThat(beanFactory.containsSingleton("entityManagerFactory")).isTrue();
+        assertThat(beanFactory.containsSingleton("bookRestApiController")).isFalse();
+
+        this.mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+
+        assertThat(beanFactory.containsSingleton("bookRestApiController")).isTrue();
+    }
+}
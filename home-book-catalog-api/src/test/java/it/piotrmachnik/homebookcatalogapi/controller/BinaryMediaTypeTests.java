@@ -0,0 +1,72 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.Room;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BinaryMediaTypeTests {
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CatalogFixture catalog;
+
+    @Test
+    void cborCarriesTheHalRepresentation() throws Exception {
+        Room room = this.catalog.room("Study");
+
+        byte[] body = this.mockMvc.perform(get("/api/rooms/{id}", room.getId()).accept(ApiVersion.V1_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, ApiVersion.V1_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] json = this.mockMvc.perform(get("/api/rooms/{id}", room.getId()).accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(body.length).isLessThan(json.length);
+        assertThat(CBOR.readTree(body)).isEqualTo(new ObjectMapper().readTree(json));
+        assertThat(CBOR.readTree(body).at("/links/0/href").asText()).endsWith("/api/rooms/" + room.getId());
+    }
+
+    @Test
+    void smileIsAcceptedAsRequestBody() throws Exception {
+        this.mockMvc.perform(post("/api/rooms")
+                        .contentType(ApiVersion.V1_SMILE)
+                        .accept(ApiVersion.V1_SMILE)
+                        .content(SMILE.writeValueAsBytes(Map.of("name", "Attic"))))
+                .andExpect(status().isCreated());
+
+        byte[] body = this.mockMvc.perform(get("/api/rooms").accept(ApiVersion.V1_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, ApiVersion.V1_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(SMILE.readTree(body).findValuesAsText("name")).containsExactly("Attic");
+    }
+}
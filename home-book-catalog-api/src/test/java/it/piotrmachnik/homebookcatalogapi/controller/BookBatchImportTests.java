@@ -0,0 +1,107 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.PlaceholderNames;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "catalog.import.batch-size=2")
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookBatchImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private PublisherRepository publisherRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idRead;
+    private Integer idShelf;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.idRead = this.catalog.statusType("Read").getId();
+        this.idShelf = this.catalog.shelf("A", 1, new Room("Room")).getId();
+        this.catalog.author("Known");
+    }
+
+    @Test
+    void importsJsonArrayAndReportsEachItem() throws Exception {
+        String body = "["
+                + book("One", "Known", "Penguin", this.idRead) + ","
+                + book("Two", "New", "Penguin", this.idRead) + ","
+                + book("Three", "New", null, 999) + ","
+                + "{\"name\":\"Four\",\"shelf\":{\"id\":" + this.idShelf + "},"
+                + "\"status\":{\"statusType\":{\"id\":" + this.idRead + "}}}"
+                + "]";
+
+        this.mockMvc.perform(post("/api/books/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].result").value("CREATED"))
+                .andExpect(jsonPath("$[1].result").value("CREATED"))
+                .andExpect(jsonPath("$[2].result").value("FAILED"))
+                .andExpect(jsonPath("$[2].message").value("Unknown status type 999"))
+                .andExpect(jsonPath("$[2].id").value(nullValue()))
+                .andExpect(jsonPath("$[3].index").value(3))
+                .andExpect(jsonPath("$[3].result").value("CREATED"));
+
+        assertThat(this.bookRepository.count()).isEqualTo(3);
+        assertThat(this.authorRepository.findAuthorsByName("Known")).hasSize(1);
+        assertThat(this.authorRepository.findAuthorsByName("New")).hasSize(1);
+        assertThat(this.authorRepository.findAuthorsByName(PlaceholderNames.AUTHOR_NAME)).hasSize(1);
+        assertThat(this.publisherRepository.findPublisherByName("Penguin")).hasSize(1);
+        Book four = this.bookRepository.findBookByName("Four").iterator().next();
+        assertThat(four.getShelf().getId()).isEqualTo(this.idShelf);
+        assertThat(four.getStatus().getStatusType().getId()).isEqualTo(this.idRead);
+        assertThat(four.getStatus().getDateUp()).isNotNull();
+    }
+
+    @Test
+    void importsNdjsonStreamAndReportsMalformedLines() throws Exception {
+        String body = book("One", "Known", null, this.idRead) + "\n"
+                + "{not json\n"
+                + "\n"
+                + book("Two", "Known", null, this.idRead) + "\n";
+
+        this.mockMvc.perform(post("/api/books/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].result").value("CREATED"))
+                .andExpect(jsonPath("$[1].result").value("FAILED"))
+                .andExpect(jsonPath("$[1].message").value("Malformed book"))
+                .andExpect(jsonPath("$[2].result").value("CREATED"));
+
+        assertThat(this.bookRepository.count()).isEqualTo(2);
+        assertThat(this.authorRepository.findAuthorsByName("Known")).hasSize(1);
+    }
+
+    private static String book(String name, String author, String publisher, Integer idStatusType) {
+        return "{\"name\":\"" + name + "\""
+                + (author == null ? "" : ",\"author\":{\"name\":\"" + author + "\"}")
+                + (publisher == null ? "" : ",\"publisher\":{\"name\":\"" + publisher + "\"}")
+                + ",\"status\":{\"statusType\":{\"id\":" + idStatusType + "}}}";
+    }
+}
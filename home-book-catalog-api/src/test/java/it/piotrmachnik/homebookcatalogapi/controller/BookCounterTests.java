@@ -0,0 +1,138 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.service.BookCounterRepairService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookCounterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookCounterRepairService bookCounterRepairService;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private StatusType unread;
+    private StatusType read;
+    private Author lem;
+    private Shelf study;
+    private Shelf attic;
+    private Book solaris;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            this.unread = this.catalog.statusType("Unread");
+            this.read = this.catalog.statusType("Read");
+            this.lem = this.catalog.author("Stanislaw Lem");
+            Publisher mon = this.catalog.publisher("MON");
+            this.study = this.catalog.shelf("A", 1, this.catalog.room("Study"));
+            this.attic = this.catalog.shelf("B", 1, this.catalog.room("Attic"));
+            this.solaris = this.catalog.book("Solaris", this.lem, mon, this.study, this.unread);
+            this.catalog.book("Fiasco", this.lem, mon, this.study, this.unread);
+            this.catalog.book("Eden", this.lem, null, this.attic, this.unread);
+        });
+    }
+
+    @Test
+    void followsEveryWrite() throws Exception {
+        assertCounters(3, 2, 1, 3, 0);
+
+        this.mockMvc.perform(patch("/api/books/{id}", this.solaris.getId())
+                        .contentType(ApiVersion.V1_HAL_JSON)
+                        .content("{\"status\": {\"statusType\": {\"id\": " + this.read.getId() + "}}}"))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/books/relocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + this.solaris.getId() + "], \"idShelf\": " + this.attic.getId() + "}")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk());
+        assertCounters(3, 1, 2, 2, 1);
+
+        this.mockMvc.perform(post("/api/books/relocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"idFromShelf\": " + this.attic.getId() + ", \"idShelf\": " + this.study.getId() + "}")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk());
+        assertCounters(3, 3, 0, 2, 1);
+
+        this.mockMvc.perform(delete("/api/books/{id}", this.solaris.getId())).andExpect(status().isOk());
+        assertCounters(2, 2, 0, 2, 0);
+
+        this.mockMvc.perform(post("/api/rooms/{id}/merge", this.study.getRoom().getId())
+                        .param("into", this.attic.getRoom().getId().toString())
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk());
+        assertThat(count("room", "id_room", this.attic.getRoom().getId())).isEqualTo(2);
+        assertThat(this.bookCounterRepairService.repair()).isZero();
+    }
+
+    @Test
+    void servesCountsFromTheCounters() throws Exception {
+        this.mockMvc.perform(get("/api/shelves").header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(2))
+                .andExpect(jsonPath("$[1].noBooks").value(1));
+        this.mockMvc.perform(get("/api/authors").header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(3));
+    }
+
+    @Test
+    void repairsDriftedCounters() {
+        this.jdbcTemplate.update("update author set no_books = 42 where id_author = ?", this.lem.getId());
+        this.jdbcTemplate.update("update room set no_books = 0");
+        long authorVersion = this.catalogVersions.version(Author.class);
+        long roomVersion = this.catalogVersions.version(Room.class);
+        long shelfVersion = this.catalogVersions.version(Shelf.class);
+
+        assertThat(this.bookCounterRepairService.repair()).isEqualTo(3);
+        assertCounters(3, 2, 1, 3, 0);
+        assertThat(this.catalogVersions.version(Author.class)).isGreaterThan(authorVersion);
+        assertThat(this.catalogVersions.version(Room.class)).isGreaterThan(roomVersion);
+        assertThat(this.catalogVersions.version(Shelf.class)).isEqualTo(shelfVersion);
+        assertThat(this.bookCounterRepairService.repair()).isZero();
+    }
+
+    private void assertCounters(long author, long studyShelf, long atticShelf, long unread, long read) {
+        assertThat(count("author", "id_author", this.lem.getId())).isEqualTo(author);
+        assertThat(count("shelf", "id_shelf", this.study.getId())).isEqualTo(studyShelf);
+        assertThat(count("shelf", "id_shelf", this.attic.getId())).isEqualTo(atticShelf);
+        assertThat(count("room", "id_room", this.study.getRoom().getId())).isEqualTo(studyShelf);
+        assertThat(count("room", "id_room", this.attic.getRoom().getId())).isEqualTo(atticShelf);
+        assertThat(count("status_type", "id_status_type", this.unread.getId())).isEqualTo(unread);
+        assertThat(count("status_type", "id_status_type", this.read.getId())).isEqualTo(read);
+    }
+
+    private Long count(String table, String idColumn, Integer id) {
+        return this.jdbcTemplate.queryForObject("select no_books from " + table + " where " + idColumn + " = ?",
+                Long.class, id);
+    }
+}
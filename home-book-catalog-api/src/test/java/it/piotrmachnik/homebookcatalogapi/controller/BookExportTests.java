@@ -0,0 +1,90 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idKitchen;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            Author author = this.catalog.author("Author, Jr.");
+            Shelf kitchen = this.catalog.shelf("A", 1, new Room("Kitchen"));
+            Shelf hall = this.catalog.shelf("B", 2, new Room("Hall"));
+            for (int b = 0; b < 250; b++) {
+                this.catalog.save(Book.builder()
+                        .name("Book " + b)
+                        .author(author)
+                        .shelf(b % 2 == 0 ? kitchen : hall)
+                        .status(Status.builder().statusType(read).dateUp(new Date()).comment("said \"fine\"").build())
+                        .build());
+            }
+            this.idKitchen = kitchen.getRoom().getId();
+        });
+    }
+
+    @Test
+    void exportsWholeCatalogAsNdjson() throws Exception {
+        String body = export("/api/books/export", "application/x-ndjson");
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(250);
+        assertThat(lines[0]).startsWith("{").contains("\"name\":\"Book 0\"").contains("\"name\":\"Kitchen\"");
+        assertThat(lines[249]).contains("\"name\":\"Book 249\"");
+    }
+
+    @Test
+    void exportsFilteredCatalogAsCsv() throws Exception {
+        String body = export("/api/books/export?format=csv&idRoom=" + this.idKitchen, "text/csv");
+
+        String[] lines = body.split("\r\n");
+        assertThat(lines).hasSize(126);
+        assertThat(lines[0]).isEqualTo("id,name,author,publisher,room,shelf_letter,shelf_number,status_type,date_up,comment");
+        assertThat(lines[1]).contains(",Book 0,\"Author, Jr.\",,Kitchen,A,1,Read,").endsWith(",\"said \"\"fine\"\"\"");
+    }
+
+    @Test
+    void rejectsUnknownFormat() throws Exception {
+        this.mockMvc.perform(get("/api/books/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String uri, String contentType) throws Exception {
+        MvcResult started = this.mockMvc.perform(get(uri))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return this.mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith(contentType)))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,120 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookFetchPlanTests {
+
+    private static final int ROOMS = 2;
+    private static final int SHELVES_PER_ROOM = 3;
+    private static final int BOOKS_PER_SHELF = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private final Map<String, Object> ids = new HashMap<>();
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(this::seed);
+        this.queryCounter.reset();
+    }
+
+    private void seed() {
+        StatusType read = this.catalog.statusType("Read");
+        Book last = null;
+        for (int r = 0; r < ROOMS; r++) {
+            Room room = this.catalog.room("Room " + r);
+            for (int s = 0; s < SHELVES_PER_ROOM; s++) {
+                Shelf shelf = this.catalog.shelf("S", s, room);
+                Author author = this.catalog.author("Author " + r + s);
+                Publisher publisher = this.catalog.publisher("Publisher " + r + s);
+                for (int b = 0; b < BOOKS_PER_SHELF; b++) {
+                    last = this.catalog.book("Book " + b, author, publisher, shelf, read);
+                }
+            }
+        }
+        this.ids.put("idBook", last.getId());
+        this.ids.put("idAuthor", last.getAuthor().getId());
+        this.ids.put("idPublisher", last.getPublisher().getId());
+        this.ids.put("idShelf", last.getShelf().getId());
+        this.ids.put("idRoom", last.getShelf().getRoom().getId());
+        this.ids.put("idStatus", last.getStatus().getId());
+        this.ids.put("idStatusType", read.getId());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/books, , 1",
+            "/api/books, idAuthor, 1",
+            "/api/books, idPublisher, 1",
+            "/api/books, idShelf, 1",
+            "/api/books, idRoom, 1",
+            "/api/books, idStatusType, 1",
+            "/api/books, idStatus, 1",
+            "/api/books?name=Book 1, , 1",
+            "/api/books?size=5, , 1",
+            "/api/books?page=1&size=5, , 2"})
+    void listingLoadsTheWholeBookGraphInOneRoundTrip(String path, String param, long statements) throws Exception {
+        String url = param == null ? path : path + "?" + param + "=" + this.ids.get(param);
+        for (String mediaType : new String[]{ApiVersion.V1_HAL_JSON, ApiVersion.V2_FOR_ANGULAR}) {
+            this.queryCounter.reset();
+
+            this.mockMvc.perform(get(url).accept(mediaType)).andExpect(status().isOk());
+
+            assertThat(this.queryCounter.statements()).as("%s as %s", url, mediaType).isEqualTo(statements);
+        }
+    }
+
+    @Test
+    void singleBookLoadsTheWholeGraphInOneRoundTrip() throws Exception {
+        this.mockMvc.perform(get("/api/books/" + this.ids.get("idBook")).accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shelf.room.name").value("Room " + (ROOMS - 1)))
+                .andExpect(jsonPath("$.status.statusType.name").value("Read"));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteLoadsTheBookWithoutItsAssociations() throws Exception {
+        this.mockMvc.perform(delete("/api/books/" + this.ids.get("idBook")))
+                .andExpect(status().isOk());
+
+        // book select, status select for the cascade, then the two deletes
+        assertThat(this.queryCounter.statements()).isEqualTo(4);
+        assertThat(this.bookRepository.count()).isEqualTo(ROOMS * SHELVES_PER_ROOM * BOOKS_PER_SHELF - 1);
+    }
+}
@@ -0,0 +1,126 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookFieldSet;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSort;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookFieldsTests {
+
+    private static final int BOOKS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idBook;
+    private Integer idAuthor;
+    private Integer idShelf;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            Author author = this.catalog.author("Author");
+            Shelf shelf = this.catalog.shelf("A", 1, new Room("Room"));
+            for (int b = 0; b < BOOKS; b++) {
+                this.idBook = this.catalog.book("Book " + b, author, null, shelf, read).getId();
+            }
+            this.idAuthor = author.getId();
+            this.idShelf = shelf.getId();
+        });
+    }
+
+    @Test
+    void selectsOnlyRequestedColumns() {
+        BookFieldSet fieldSet = new BookFieldSet();
+        fieldSet.setFields("name,shelf.room.name");
+
+        List<Map<String, Object>> rows = this.bookRepository.findFields(BookSpecifications.byAuthor(this.idAuthor),
+                fieldSet, BookSort.parse(null), null, 0, Integer.MAX_VALUE);
+
+        assertThat(rows).hasSize(BOOKS);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "name", "shelf.room.name")
+                .containsEntry("shelf.room.name", "Room");
+    }
+
+    @Test
+    void rendersNestedFieldsOfSingleBook() throws Exception {
+        this.mockMvc.perform(get("/api/books/{id}", this.idBook)
+                        .param("fields", "name,author.name,publisher")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Book 2"))
+                .andExpect(jsonPath("$.author.name").value("Author"))
+                .andExpect(jsonPath("$.author.id").doesNotExist())
+                .andExpect(jsonPath("$.publisher").value(nullValue()))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.shelf").doesNotExist())
+                .andExpect(jsonPath("$.links[0].href", containsString("/api/books/" + this.idBook)));
+    }
+
+    @Test
+    void compactListReplacesAssociationsWithIds() throws Exception {
+        this.mockMvc.perform(get("/api/books")
+                        .param("idAuthor", this.idAuthor.toString())
+                        .param("compact", "true")
+                        .accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BOOKS)))
+                .andExpect(jsonPath("$[0].name").value("Book 0"))
+                .andExpect(jsonPath("$[0].author").value(this.idAuthor))
+                .andExpect(jsonPath("$[0].shelf").value(this.idShelf))
+                .andExpect(jsonPath("$[0].status").isNumber());
+    }
+
+    @Test
+    void pagesSparseListsWithCursors() throws Exception {
+        this.mockMvc.perform(get("/api/books")
+                        .param("fields", "name")
+                        .param("size", "2")
+                        .param("sort", "name,desc")
+                        .accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name").value("Book 2"))
+                .andExpect(jsonPath("$[1].name").value("Book 1"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=")));
+    }
+
+    @Test
+    void rejectsUnknownAndCompactNestedFields() throws Exception {
+        this.mockMvc.perform(get("/api/books").param("fields", "isbn").accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(get("/api/books").param("fields", "author.name").param("compact", "true")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,120 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookFilterTests {
+
+    private static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Author tolkien;
+    private Author lem;
+    private Shelf study;
+    private Shelf attic;
+    private StatusType read;
+    private StatusType unread;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            this.read = this.catalog.statusType("Read");
+            this.unread = this.catalog.statusType("Unread");
+            this.tolkien = this.catalog.author("Tolkien");
+            this.lem = this.catalog.author("Lem");
+            this.study = this.catalog.shelf("A", 1, new Room("Study"));
+            this.attic = this.catalog.shelf("B", 1, new Room("Attic"));
+            this.catalog.book("Hobbit", this.tolkien, null, this.study, this.unread);
+            this.catalog.book("Silmarillion", this.tolkien, null, this.study, this.read);
+            this.catalog.book("Unfinished Tales", this.tolkien, null, this.attic, this.unread);
+            this.catalog.book("Solaris", this.lem, null, this.study, this.unread);
+            this.catalog.book("Cyberiad", this.lem, null, this.attic, this.read);
+        });
+    }
+
+    @Test
+    void combinesCriteriaInOneQuery() throws Exception {
+        this.queryCounter.reset();
+
+        this.mockMvc.perform(get("/api/books/filter")
+                        .param("idAuthor", this.tolkien.getId().toString())
+                        .param("idRoom", this.study.getRoom().getId().toString())
+                        .param("idStatusType", this.unread.getId().toString())
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("Hobbit")));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void acceptsValueListsAndSorts() throws Exception {
+        this.mockMvc.perform(get("/api/books/filter")
+                        .param("idAuthor", this.tolkien.getId() + "," + this.lem.getId())
+                        .param("idStatusType", this.unread.getId().toString())
+                        .param("sort", "name,desc")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("Unfinished Tales", "Solaris", "Hobbit")));
+    }
+
+    @Test
+    void pagesFilteredBooks() throws Exception {
+        this.mockMvc.perform(get("/api/books/filter")
+                        .param("idShelf", this.study.getId().toString(), this.attic.getId().toString())
+                        .param("idAuthor", this.lem.getId().toString())
+                        .param("page", "0")
+                        .param("size", "1")
+                        .accept(ApiVersion.V2_FOR_ANGULAR)
+                        .header(HttpHeaders.ORIGIN, "http://localhost:4200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(HEADER_TOTAL_COUNT, "2"))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("page=1")))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString(HttpHeaders.LINK)))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, containsString(HEADER_TOTAL_COUNT)));
+    }
+
+    @Test
+    void pagesUnfilteredRequestsByDefault() throws Exception {
+        this.mockMvc.perform(get("/api/books/filter").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder(
+                        "Hobbit", "Silmarillion", "Unfinished Tales", "Solaris", "Cyberiad")));
+        this.mockMvc.perform(get("/api/books/filter")
+                        .param("name", "Solaris")
+                        .param("fields", "name")
+                        .accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Solaris")));
+    }
+}
@@ -0,0 +1,122 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookPagingTests {
+
+    private static final int BOOKS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idAuthor;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            Author author = this.catalog.author("Author");
+            Shelf shelf = this.catalog.shelf("A", 1, new Room("Room"));
+            for (int b = 0; b < BOOKS; b++) {
+                this.catalog.book("Book " + (char) ('a' + (b * 7) % BOOKS), author, null, shelf, read);
+            }
+            this.idAuthor = author.getId();
+        });
+    }
+
+    @Test
+    void cursorPagesWalkTheWholeCatalogInNameOrder() throws Exception {
+        List<String> names = new ArrayList<>();
+        String next = "/api/books?size=10&sort=name&idAuthor=" + this.idAuthor;
+        int pages = 0;
+        while (next != null) {
+            MvcResult result = this.mockMvc.perform(get(next).accept(ApiVersion.V1_HAL_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String body = result.getResponse().getContentAsString();
+            names.addAll(JsonPath.read(body, "$.content[*].name"));
+            List<String> nextLinks = JsonPath.read(body, "$.links[?(@.rel == 'next')].href");
+            next = nextLinks.isEmpty() ? null : nextLinks.get(0);
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(names).hasSize(BOOKS).isSorted();
+    }
+
+    @Test
+    void cursorPagesForAngularAreLinkedThroughTheLinkHeader() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String next = "/api/books?size=10&sort=id,desc";
+        while (next != null) {
+            MvcResult result = this.mockMvc.perform(get(next).accept(ApiVersion.V2_FOR_ANGULAR))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ids.addAll(JsonPath.read(result.getResponse().getContentAsString(), "$[*].id"));
+            String link = result.getResponse().getHeader(HttpHeaders.LINK);
+            next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        }
+
+        assertThat(ids).hasSize(BOOKS).isSortedAccordingTo((a, b) -> b - a);
+    }
+
+    @Test
+    void offsetPagesCarryPageMetadataAndNeighbourLinks() throws Exception {
+        this.mockMvc.perform(get("/api/books?page=1&size=10").accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(10)))
+                .andExpect(jsonPath("$.page.totalElements").value(BOOKS))
+                .andExpect(jsonPath("$.page.totalPages").value(3))
+                .andExpect(jsonPath("$.links[?(@.rel == 'prev')].href", contains(containsString("page=0"))))
+                .andExpect(jsonPath("$.links[?(@.rel == 'next')].href", contains(containsString("page=2"))));
+
+        this.mockMvc.perform(get("/api/books?page=2&size=10").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(header().string("X-Total-Count", String.valueOf(BOOKS)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"prev\"")));
+    }
+
+    @Test
+    void unpagedRequestsStillReturnTheWholeCollection() throws Exception {
+        this.mockMvc.perform(get("/api/books").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BOOKS)))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        this.mockMvc.perform(get("/api/books?after=not-a-cursor").accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,146 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.event.CatalogVersions;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookRelocationTests {
+
+    private static final int BOOKS_PER_SHELF = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShelfRepository shelfRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Shelf first;
+    private Shelf second;
+    private Shelf other;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            Author author = this.catalog.author("Author");
+            Room study = this.catalog.room("Study");
+            this.first = this.catalog.shelf("A", 1, study);
+            this.second = this.catalog.shelf("A", 2, study);
+            this.other = this.catalog.shelf("B", 1, new Room("Attic"));
+            for (Shelf shelf : new Shelf[]{this.first, this.second}) {
+                for (int b = 0; b < BOOKS_PER_SHELF; b++) {
+                    this.catalog.book("Book " + shelf.getNumber() + "." + b, author, null, shelf, read);
+                }
+            }
+        });
+    }
+
+    @Test
+    void movesWholeShelfWithSetBasedUpdate() throws Exception {
+        long bookVersion = this.catalogVersions.version(Book.class);
+        this.queryCounter.reset();
+
+        this.mockMvc.perform(post("/api/books/relocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"idFromShelf\": " + this.first.getId() + ", \"idShelf\": " + this.other.getId() + "}")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(BOOKS_PER_SHELF));
+
+        assertThat(this.queryCounter.statements()).isLessThanOrEqualTo(4);
+        assertThat(this.bookRepository.findByShelfId(this.other.getId())).hasSize(BOOKS_PER_SHELF);
+        assertThat(this.bookRepository.findByShelfId(this.first.getId())).isEmpty();
+        assertThat(this.catalogVersions.version(Book.class)).isGreaterThan(bookVersion);
+    }
+
+    @Test
+    void movesSelectedBooks() throws Exception {
+        Integer[] ids = this.bookRepository.findByShelfId(this.second.getId()).stream()
+                .map(Book::getId).limit(2).toArray(Integer[]::new);
+
+        this.mockMvc.perform(post("/api/books/relocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + ids[0] + ", " + ids[1] + "], \"idShelf\": " + this.first.getId() + "}")
+                        .accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(2));
+
+        assertThat(this.bookRepository.findByShelfId(this.first.getId())).hasSize(BOOKS_PER_SHELF + 2);
+    }
+
+    @Test
+    void mergesShelfAndDeletesIt() throws Exception {
+        this.mockMvc.perform(post("/api/shelves/{id}/merge", this.second.getId())
+                        .param("into", this.first.getId().toString())
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(BOOKS_PER_SHELF));
+
+        assertThat(this.shelfRepository.existsById(this.second.getId())).isFalse();
+        assertThat(this.bookRepository.findByShelfId(this.first.getId())).hasSize(2 * BOOKS_PER_SHELF);
+    }
+
+    @Test
+    void mergesRoomAndMovesShelvesWithTheirBooks() throws Exception {
+        Integer study = this.first.getRoom().getId();
+        Integer attic = this.other.getRoom().getId();
+
+        this.mockMvc.perform(post("/api/rooms/{id}/merge", study)
+                        .param("into", attic.toString())
+                        .accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shelves").value(2))
+                .andExpect(jsonPath("$.books").value(2 * BOOKS_PER_SHELF));
+
+        assertThat(this.roomRepository.existsById(study)).isFalse();
+        assertThat(this.shelfRepository.findById(this.first.getId()).get().getRoom().getId()).isEqualTo(attic);
+        assertThat(this.bookRepository.findByShelfRoomId(attic)).hasSize(2 * BOOKS_PER_SHELF);
+    }
+
+    @Test
+    void rejectsIncompleteOrCircularRelocations() throws Exception {
+        this.mockMvc.perform(post("/api/books/relocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"idFromShelf\": " + this.first.getId() + "}")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/api/shelves/{id}/merge", this.first.getId())
+                        .param("into", this.first.getId().toString())
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+        this.mockMvc.perform(post("/api/rooms/{id}/merge", this.first.getRoom().getId())
+                        .param("into", "-1")
+                        .accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
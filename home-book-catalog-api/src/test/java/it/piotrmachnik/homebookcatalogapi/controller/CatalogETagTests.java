@@ -0,0 +1,95 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class CatalogETagTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Author author;
+    private Room room;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            this.author = this.catalog.author("Author");
+            Shelf shelf = this.catalog.shelf("A", 1, new Room("Room"));
+            this.room = shelf.getRoom();
+            this.catalog.book("Book", this.author, null, shelf, this.catalog.statusType("Read"));
+        });
+    }
+
+    @Test
+    void answersNotModifiedWithoutQueryingWhileCatalogIsUnchanged() throws Exception {
+        String etag = etag("/api/books", ApiVersion.V1_HAL_JSON);
+        assertThat(etag).startsWith("W/\"");
+
+        this.queryCounter.reset();
+        this.mockMvc.perform(get("/api/books").accept(ApiVersion.V1_HAL_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(this.queryCounter.statements()).isZero();
+    }
+
+    @Test
+    void changesTagWhenDependentTypeChanges() throws Exception {
+        String books = etag("/api/books", ApiVersion.V1_HAL_JSON);
+        String authors = etag("/api/authors", ApiVersion.V1_HAL_JSON);
+        String rooms = etag("/api/rooms", ApiVersion.V1_HAL_JSON);
+
+        this.author.setName("Renamed");
+        this.authorRepository.save(this.author);
+
+        assertThat(etag("/api/books", ApiVersion.V1_HAL_JSON)).isNotEqualTo(books);
+        assertThat(etag("/api/authors", ApiVersion.V1_HAL_JSON)).isNotEqualTo(authors);
+        assertThat(etag("/api/rooms", ApiVersion.V1_HAL_JSON)).isEqualTo(rooms);
+        this.mockMvc.perform(get("/api/books").accept(ApiVersion.V1_HAL_JSON).header(HttpHeaders.IF_NONE_MATCH, books))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void separatesRepresentations() throws Exception {
+        String v1 = etag("/api/rooms/" + this.room.getId(), ApiVersion.V1_HAL_JSON);
+        String v2 = etag("/api/rooms/" + this.room.getId(), ApiVersion.V2_FOR_ANGULAR);
+
+        assertThat(v1).isNotEqualTo(v2);
+        this.mockMvc.perform(get("/api/rooms/" + this.room.getId()).accept(ApiVersion.V2_FOR_ANGULAR)
+                        .header(HttpHeaders.IF_NONE_MATCH, v1))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String uri, String accept) throws Exception {
+        return this.mockMvc.perform(get(uri).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
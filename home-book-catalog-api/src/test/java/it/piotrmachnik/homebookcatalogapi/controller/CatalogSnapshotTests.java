@@ -0,0 +1,168 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.CatalogSnapshotFilter;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class CatalogSnapshotTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private CatalogSnapshotFilter catalogSnapshotFilter;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Author author;
+    private Shelf shelf;
+    private StatusType read;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            this.read = this.catalog.statusType("Read");
+            this.author = this.catalog.author("Author");
+            this.shelf = this.catalog.shelf("A", 1, new Room("Room"));
+        });
+        addBook("First");
+    }
+
+    @Test
+    void servesPrecompressedSnapshotWithoutQueries() throws Exception {
+        MockHttpServletResponse live = getBooks();
+        assertThat(live.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        awaitSnapshot(live);
+
+        this.queryCounter.reset();
+        MockHttpServletResponse snapshot = getBooks();
+
+        assertThat(this.queryCounter.statements()).isZero();
+        assertThat(snapshot.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(snapshot.getContentType()).isEqualTo(live.getContentType());
+        assertThat(snapshot.getHeader(HttpHeaders.ETAG)).isEqualTo(live.getHeader(HttpHeaders.ETAG));
+        assertThat(gunzip(snapshot.getContentAsByteArray())).isEqualTo(live.getContentAsByteArray());
+    }
+
+    @Test
+    void answersConditionalRequestsFromSnapshot() throws Exception {
+        MockHttpServletResponse live = getBooks();
+        awaitSnapshot(live);
+
+        this.mockMvc.perform(get("/api/books")
+                        .accept(ApiVersion.V1_HAL_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .header(HttpHeaders.IF_NONE_MATCH, live.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void writesInvalidateSnapshot() throws Exception {
+        awaitSnapshot(getBooks());
+
+        addBook("Second");
+        MockHttpServletResponse afterWrite = getBooks();
+
+        assertThat(afterWrite.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(afterWrite.getContentAsString()).contains("Second");
+    }
+
+    @Test
+    void rendersLiveWithoutGzipOrWithQuery() throws Exception {
+        getBooks();
+        awaitSnapshot(getBooks());
+
+        assertThat(this.mockMvc.perform(get("/api/books").accept(ApiVersion.V1_HAL_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(this.mockMvc.perform(get("/api/books").param("idAuthor", this.author.getId().toString())
+                        .accept(ApiVersion.V1_HAL_JSON).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void sharesOneSnapshotAcrossAcceptHeadersNegotiatingTheSameType() throws Exception {
+        awaitSnapshot(getBooks());
+        int snapshots = this.catalogSnapshotFilter.size();
+
+        for (int variant = 0; variant < 100; variant++) {
+            String accept = ApiVersion.V1_HAL_JSON + ";q=0." + (100 + variant) + ", */*;q=0.01";
+            getBooks(accept);
+            assertThat(getBooks(accept).getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        }
+
+        assertThat(this.catalogSnapshotFilter.size()).isEqualTo(snapshots);
+    }
+
+    @Test
+    void leavesCrossOriginRequestsToTheCorsMappings() throws Exception {
+        awaitSnapshot(getBooks(ApiVersion.V2_FOR_ANGULAR));
+
+        MockHttpServletResponse crossOrigin = this.mockMvc.perform(get("/api/books")
+                        .accept(ApiVersion.V2_FOR_ANGULAR)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:4200"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(crossOrigin.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(crossOrigin.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("http://localhost:4200");
+    }
+
+    private MockHttpServletResponse getBooks() throws Exception {
+        return getBooks(ApiVersion.V1_HAL_JSON);
+    }
+
+    private MockHttpServletResponse getBooks(String accept) throws Exception {
+        return this.mockMvc.perform(get("/api/books")
+                        .accept(accept)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    // The snapshot is compressed off the request thread; wait until the next request is served from it.
+    private void awaitSnapshot(MockHttpServletResponse live) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (getBooks(live.getContentType()).getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No snapshot was written for " + live.getContentType());
+    }
+
+    private void addBook(String name) {
+        this.catalog.seed(() -> this.catalog.book(name, this.author, null, this.shelf, this.read));
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class CatalogStatsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Book hobbit;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            StatusType unread = this.catalog.statusType("Unread");
+            Room study = this.catalog.room("Study");
+            this.catalog.room("Attic");
+            Shelf full = this.catalog.shelf("A", 1, study);
+            this.catalog.shelf("A", 2, study);
+            Author tolkien = this.catalog.author("J. R. R. Tolkien");
+            Publisher allen = this.catalog.publisher("Allen & Unwin");
+            this.hobbit = this.catalog.book("The Hobbit", tolkien, allen, full, read);
+            this.catalog.book("The Silmarillion", tolkien, null, full, read);
+            this.catalog.book("Untitled", null, null, null, unread);
+        });
+        addedOn(this.hobbit, "2024-01-15 10:00:00");
+        addedOn(this.hobbit, "2024-03-01 10:00:00");
+        this.bookRepository.findAll().stream().filter(book -> !book.getId().equals(this.hobbit.getId()))
+                .forEach(book -> addedOn(book, "2024-03-20 10:00:00"));
+    }
+
+    @Test
+    void aggregatesTheCatalog() throws Exception {
+        this.mockMvc.perform(get("/api/stats").header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(3))
+                .andExpect(jsonPath("$.rooms[0].name").value("Study"))
+                .andExpect(jsonPath("$.rooms[0].noBooks").value(2))
+                .andExpect(jsonPath("$.rooms[1].name").value("Attic"))
+                .andExpect(jsonPath("$.rooms[1].noBooks").value(0))
+                .andExpect(jsonPath("$.shelves[0].noBooks").value(2))
+                .andExpect(jsonPath("$.shelves[1].noBooks").value(0))
+                .andExpect(jsonPath("$.statusTypes[0].noBooks").value(2))
+                .andExpect(jsonPath("$.statusTypes[1].noBooks").value(1))
+                .andExpect(jsonPath("$.authors[0].noBooks").value(2))
+                .andExpect(jsonPath("$.publishers[0].noBooks").value(1))
+                .andExpect(jsonPath("$.shelfFill.shelves").value(2))
+                .andExpect(jsonPath("$.shelfFill.emptyShelves").value(1))
+                .andExpect(jsonPath("$.shelfFill.maxBooks").value(2))
+                .andExpect(jsonPath("$.shelfFill.averageBooks").value(1.0))
+                .andExpect(jsonPath("$.booksAddedPerMonth.length()").value(2))
+                .andExpect(jsonPath("$.booksAddedPerMonth[0].month").value(1))
+                .andExpect(jsonPath("$.booksAddedPerMonth[0].books").value(1))
+                .andExpect(jsonPath("$.booksAddedPerMonth[1].month").value(3))
+                .andExpect(jsonPath("$.booksAddedPerMonth[1].books").value(2));
+    }
+
+    @Test
+    void keepsTheStatsUntilTheCatalogChanges() throws Exception {
+        this.mockMvc.perform(get("/api/stats")).andExpect(jsonPath("$.books").value(3));
+        this.queryCounter.reset();
+
+        this.mockMvc.perform(get("/api/stats")).andExpect(jsonPath("$.books").value(3));
+        assertThat(this.queryCounter.statements()).isZero();
+
+        this.mockMvc.perform(delete("/api/books/{id}", this.hobbit.getId())).andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/stats"))
+                .andExpect(jsonPath("$.books").value(2))
+                .andExpect(jsonPath("$.shelfFill.maxBooks").value(1))
+                .andExpect(jsonPath("$.booksAddedPerMonth.length()").value(1));
+    }
+
+    private void addedOn(Book book, String date) {
+        this.jdbcTemplate.update("insert into status_history (id_book, id_status_type, date_from) values (?, ?, ?)",
+                book.getId(), null, Timestamp.valueOf(date));
+    }
+}
@@ -0,0 +1,59 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplateTests {
+
+    private static final LinkTemplate BOOK = LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBook(id, null));
+    private static final LinkTemplate BOOKS_BY_AUTHOR =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBooksByAuthor(id, null, null));
+
+    @AfterEach
+    void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void expandsLikeLinkTo() {
+        bindRequest("localhost", 8080);
+
+        assertThat(BOOK.expand(7).getHref())
+                .isEqualTo("http://localhost:8080/api/books/7")
+                .isEqualTo(linkTo(methodOn(BookRestApiController.class).getBook(7, null)).withSelfRel().getHref());
+        assertThat(BOOKS_BY_AUTHOR.expand(12).getHref())
+                .isEqualTo(linkTo(methodOn(BookRestApiController.class).getBooksByAuthor(12, null, null)).toUri().toString());
+        assertThat(BOOK.expand(7).getRel().value()).isEqualTo("self");
+    }
+
+    @Test
+    void resolvesTemplatePerBaseUri() {
+        bindRequest("localhost", 8080);
+        assertThat(BOOK.expand(1).getHref()).isEqualTo("http://localhost:8080/api/books/1");
+
+        bindRequest("books.example.com", 80);
+        assertThat(BOOK.expand(1).getHref()).isEqualTo("http://books.example.com/api/books/1");
+
+        MockHttpServletRequest forwarded = bindRequest("localhost", 8080);
+        forwarded.addHeader("X-Forwarded-Proto", "https");
+        forwarded.addHeader("X-Forwarded-Host", "catalog.example.com");
+        forwarded.addHeader("X-Forwarded-Port", "443");
+        assertThat(BOOK.expand(1).getHref())
+                .isEqualTo(linkTo(methodOn(BookRestApiController.class).getBook(1, null)).toUri().toString());
+    }
+
+    private static MockHttpServletRequest bindRequest(String host, int port) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.setServerName(host);
+        request.setServerPort(port);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+}
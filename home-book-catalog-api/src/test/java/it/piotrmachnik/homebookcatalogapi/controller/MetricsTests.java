@@ -0,0 +1,84 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.MetricsConfigurer;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idRoom;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            Shelf shelf = this.catalog.shelf("A", 1, new Room("Room"));
+            this.catalog.book("Book", this.catalog.author("Author"), null, shelf, this.catalog.statusType("Read"));
+            this.idRoom = shelf.getRoom().getId();
+        });
+    }
+
+    @Test
+    void timesRequestsPerHandlerAndMediaType() throws Exception {
+        this.mockMvc.perform(get("/api/books").param("idRoom", this.idRoom.toString()).accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/books").param("idRoom", this.idRoom.toString()).accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk());
+
+        assertThat(this.meterRegistry.get("http.server.requests")
+                .tag(MetricsConfigurer.TAG_HANDLER, "BookRestApiController.getBooksByRoomForAuthor")
+                .tag(MetricsConfigurer.TAG_MEDIA_TYPE, ApiVersion.V2_FOR_ANGULAR)
+                .timer().count()).isEqualTo(1);
+        assertThat(this.meterRegistry.get("http.server.requests")
+                .tag(MetricsConfigurer.TAG_HANDLER, "BookRestApiController.getBooksByRoom")
+                .tag(MetricsConfigurer.TAG_MEDIA_TYPE, ApiVersion.V1_HAL_JSON)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsRepositoryTimersAndStatementsPerRequest() throws Exception {
+        this.mockMvc.perform(get("/api/books").param("idRoom", this.idRoom.toString()).accept(ApiVersion.V1_HAL_JSON))
+                .andExpect(status().isOk());
+
+        assertThat(this.meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "BookRepository")
+                .tag("method", "findByShelfRoomId")
+                .timer().count()).isPositive();
+        assertThat(this.meterRegistry.get(MetricsConfigurer.STATEMENTS_PER_REQUEST)
+                .tag(MetricsConfigurer.TAG_HANDLER, "BookRestApiController.getBooksByRoom")
+                .summary().max()).isEqualTo(1);
+    }
+
+    @Test
+    void exportsHibernateAndPoolMetrics() {
+        assertThat(this.meterRegistry.find("hibernate.entities.loads").functionCounter()).isNotNull();
+        assertThat(this.meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit")
+                .functionCounter()).isNotNull();
+        assertThat(this.meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+}
@@ -0,0 +1,142 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.config.ReadYourWritesGuard;
+import it.piotrmachnik.homebookcatalogapi.config.ReplicaRoutingDataSource;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "catalog.datasource.health-check-interval=1h",
+        "catalog.datasource.lag-check-interval=1h"
+})
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class ReadReplicaRoutingTests {
+
+    private static Server replicaServer;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Integer idRoom;
+
+    // The replica is the same in-memory database served over TCP, so it can be taken down independently.
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) throws SQLException {
+        replicaServer = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        registry.add("catalog.datasource.replicas[0].url",
+                () -> "jdbc:h2:tcp://localhost:" + replicaServer.getPort() + "/mem:books;MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        replicaServer.stop();
+    }
+
+    @BeforeEach
+    void seedCatalog() {
+        this.idRoom = this.catalog.room("Living room").getId();
+        this.replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    void readOnlyRequestsUseReplica() throws Exception {
+        long primary = acquisitions(ReplicaRoutingDataSource.PRIMARY);
+        long replica = acquisitions("replica-1");
+
+        this.mockMvc.perform(get("/api/rooms").accept(ApiVersion.V2_FOR_ANGULAR)).andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/rooms")).andExpect(status().isOk());
+
+        assertThat(acquisitions("replica-1")).isEqualTo(replica + 2);
+        assertThat(acquisitions(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primary);
+    }
+
+    @Test
+    void repositoryQueriesUseReplica() throws Exception {
+        Integer idAuthor = this.catalog.author("Lem").getId();
+        this.replicaRoutingDataSource.checkLag();
+        long primary = acquisitions(ReplicaRoutingDataSource.PRIMARY);
+        long replica = acquisitions("replica-1");
+
+        this.mockMvc.perform(get("/api/books").param("idAuthor", idAuthor.toString())).andExpect(status().isOk());
+
+        assertThat(acquisitions("replica-1")).isEqualTo(replica + 1);
+        assertThat(acquisitions(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primary);
+    }
+
+    @Test
+    void readsFollowWritesToPrimaryUntilReplicaAppliesThem() throws Exception {
+        this.mockMvc.perform(patch("/api/rooms/{id}", this.idRoom)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Library\"}"))
+                .andExpect(status().is2xxSuccessful());
+        long primary = acquisitions(ReplicaRoutingDataSource.PRIMARY);
+        long replica = acquisitions("replica-1");
+
+        assertThat(this.replicaRoutingDataSource.getAppliedHeartbeats().get("replica-1"))
+                .isLessThan(this.readYourWritesGuard.getRequiredHeartbeat());
+
+        this.mockMvc.perform(get("/api/rooms")).andExpect(status().isOk());
+        assertThat(acquisitions(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primary + 1);
+        assertThat(acquisitions("replica-1")).isEqualTo(replica);
+
+        this.replicaRoutingDataSource.checkLag();
+        assertThat(this.replicaRoutingDataSource.getAppliedHeartbeats().get("replica-1"))
+                .isGreaterThanOrEqualTo(this.readYourWritesGuard.getRequiredHeartbeat());
+        replica = acquisitions("replica-1");
+        this.mockMvc.perform(get("/api/rooms")).andExpect(status().isOk());
+        assertThat(acquisitions("replica-1")).isEqualTo(replica + 1);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+        replicaServer.stop();
+        try {
+            this.replicaRoutingDataSource.checkReplicas();
+            assertThat(this.replicaRoutingDataSource.getHealthyReplicas()).isEmpty();
+            long primary = acquisitions(ReplicaRoutingDataSource.PRIMARY);
+
+            this.mockMvc.perform(get("/api/rooms").accept(ApiVersion.V2_FOR_ANGULAR)).andExpect(status().isOk());
+
+            assertThat(acquisitions(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(primary + 1);
+        } finally {
+            replicaServer = Server.createTcpServer("-tcpPort", Integer.toString(replicaServer.getPort()), "-ifNotExists").start();
+        }
+        this.replicaRoutingDataSource.checkReplicas();
+        assertThat(this.replicaRoutingDataSource.getHealthyReplicas()).containsExactly("replica-1");
+    }
+
+    private long acquisitions(String pool) {
+        return this.meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count();
+    }
+}
@@ -0,0 +1,126 @@
+package it.piotrmachnik.homebookcatalogapi.controller;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class StatusHistoryTests {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private StatusType unread;
+    private StatusType read;
+    private Book book;
+    private Book archived;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            this.unread = this.catalog.statusType("Unread");
+            this.read = this.catalog.statusType("Read");
+            Shelf shelf = this.catalog.shelf("A", 1, this.catalog.room("Study"));
+            this.book = this.bookService.addBook(Book.builder()
+                    .name("Solaris")
+                    .author(new Author("Stanislaw Lem"))
+                    .publisher(new Publisher("MON"))
+                    .shelf(shelf)
+                    .status(Status.builder().statusType(this.unread).comment("Bought").build())
+                    .build());
+            this.archived = this.catalog.book("Fiasco", null, null, null, this.read);
+        });
+    }
+
+    @Test
+    void appendsEveryStatusChangeAndKeepsTheCurrentTypeOnTheBook() throws Exception {
+        this.mockMvc.perform(patch("/api/books/{id}", this.book.getId())
+                        .contentType(ApiVersion.V1_HAL_JSON)
+                        .content("{\"status\": {\"statusType\": {\"id\": " + this.read.getId() + "}, \"comment\": \"Finished\"}}"))
+                .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/api/status-history/books/{id}", this.book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].statusType.name").value("Unread"))
+                .andExpect(jsonPath("$[0].comment").value("Bought"))
+                .andExpect(jsonPath("$[1].statusType.name").value("Read"))
+                .andExpect(jsonPath("$[1].comment").value("Finished"));
+        assertThat(this.jdbcTemplate.queryForObject("select id_status_type from book where id_book = ?",
+                Integer.class, this.book.getId())).isEqualTo(this.read.getId());
+        this.mockMvc.perform(get("/api/books").param("idStatusType", this.read.getId().toString())
+                        .header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status.statusType.name").value("Read"));
+        this.mockMvc.perform(get("/api/books").param("idStatusType", this.unread.getId().toString())
+                        .header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void answersRangesAndDurationsFromTheLog() throws Exception {
+        append(this.unread, START);
+        append(this.read, START.plus(Duration.ofDays(2)));
+        append(this.unread, START.plus(Duration.ofDays(3)));
+        append(this.read, START.plus(Duration.ofDays(4)));
+
+        this.mockMvc.perform(get("/api/status-history")
+                        .param("from", "2024-01-02T00:00:00Z")
+                        .param("to", "2024-01-05T00:00:00Z")
+                        .header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].idBook").value(this.archived.getId()))
+                .andExpect(jsonPath("$[0].statusType.name").value("Read"))
+                .andExpect(jsonPath("$[1].statusType.name").value("Unread"));
+        this.mockMvc.perform(get("/api/status-history/books/{id}/durations", this.archived.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].statusType.name").value("Unread"))
+                .andExpect(jsonPath("$[0].millis").value(Duration.ofDays(3).toMillis()))
+                .andExpect(jsonPath("$[1].statusType.name").value("Read"))
+                .andExpect(jsonPath("$[1].millis", greaterThan(Duration.ofDays(1).toMillis())));
+        this.mockMvc.perform(get("/api/status-history")
+                        .param("from", "2024-01-05T00:00:00Z")
+                        .param("to", "2024-01-02T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void append(StatusType statusType, Instant dateFrom) {
+        this.jdbcTemplate.update("insert into status_history (id_book, id_status_type, date_from) values (?, ?, ?)",
+                this.archived.getId(), statusType.getId(), Timestamp.from(dateFrom));
+    }
+}
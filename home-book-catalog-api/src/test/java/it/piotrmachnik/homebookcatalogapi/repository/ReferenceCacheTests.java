@@ -0,0 +1,104 @@
+package it.piotrmachnik.homebookcatalogapi.repository;
+
+import it.piotrmachnik.homebookcatalogapi.model.Author;
+import it.piotrmachnik.homebookcatalogapi.model.Room;
+import it.piotrmachnik.homebookcatalogapi.model.Shelf;
+import it.piotrmachnik.homebookcatalogapi.service.AuthorService;
+import it.piotrmachnik.homebookcatalogapi.service.RoomService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReferenceCacheTests {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private ShelfRepository shelfRepository;
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clear() {
+        this.shelfRepository.deleteAll();
+        this.roomRepository.deleteAll();
+        this.authorRepository.deleteAll();
+    }
+
+    @Test
+    void referenceEntitiesAreServedFromTheSecondLevelCache() {
+        Integer id = this.authorRepository.save(new Author("Lem")).getId();
+        this.authorRepository.findById(id);
+        this.statistics.clear();
+
+        this.authorRepository.findById(id);
+        this.authorRepository.findById(id);
+
+        assertThat(this.statistics.getPrepareStatementCount()).isZero();
+        assertThat(this.statistics.getDomainDataRegionStatistics(Author.class.getName()).getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void updateThroughTheServiceRefreshesTheCachedEntity() {
+        Integer id = this.authorRepository.save(new Author("Lem")).getId();
+        this.authorRepository.findById(id);
+
+        this.authorService.updateAuthor(id, new Author("Stanislaw Lem"));
+
+        assertThat(this.authorRepository.findById(id)).get().extracting(Author::getName).isEqualTo("Stanislaw Lem");
+    }
+
+    @Test
+    void nameQueriesAreCachedUntilTheTableChanges() {
+        this.authorRepository.save(new Author("Lem"));
+        this.authorRepository.findAuthorsByName("Lem");
+        this.statistics.clear();
+
+        assertThat(this.authorRepository.findAuthorsByName("Lem")).hasSize(1);
+        assertThat(this.statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(this.statistics.getPrepareStatementCount()).isZero();
+
+        this.authorRepository.save(new Author("Tolkien"));
+        this.statistics.clear();
+
+        assertThat(this.authorRepository.findAuthorsByName("Lem")).hasSize(1);
+        assertThat(this.statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    void deleteEvictsTheCachedEntity() {
+        Shelf shelf = this.shelfRepository.save(Shelf.builder().letter("A").number(1).room(new Room("Study")).build());
+        Room room = shelf.getRoom();
+        this.shelfRepository.findById(shelf.getId());
+        this.roomRepository.findRoomByName("Study");
+
+        this.shelfRepository.deleteById(shelf.getId());
+        this.roomService.updateRoom(room.getId(), new Room("Library"));
+
+        assertThat(this.shelfRepository.findById(shelf.getId())).isEmpty();
+        assertThat(this.roomRepository.findRoomByName("Study")).isEmpty();
+        assertThat(this.roomRepository.findRoomByName("Library")).hasSize(1);
+    }
+}
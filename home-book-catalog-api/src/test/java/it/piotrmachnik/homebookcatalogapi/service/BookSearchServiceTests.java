@@ -0,0 +1,135 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSearchHitDTO;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.BookSearchResultDTO;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(CatalogFixture.class)
+@ExtendWith(CatalogFixture.Cleanup.class)
+class BookSearchServiceTests {
+
+    @Autowired
+    private BookSearchService bookSearchService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private StatusType read;
+    private Shelf shelf;
+
+    @BeforeEach
+    void seedCatalog() throws Exception {
+        this.catalog.seed(() -> {
+            this.read = this.catalog.statusType("Read");
+            this.shelf = this.catalog.shelf("A", 1, new Room("Room"));
+            Author tolkien = this.catalog.author("J. R. R. Tolkien");
+            Author herbert = this.catalog.author("Frank Herbert");
+            Publisher allen = this.catalog.publisher("Allen & Unwin");
+            this.catalog.book("The Hobbit", tolkien, allen, null, this.read);
+            this.catalog.book("The Lord of the Rings", tolkien, allen, null, this.read);
+            this.catalog.book("Dune", herbert, null, null, this.read);
+            this.catalog.book("Tolkien: A Biography", herbert, null, null, this.read);
+        });
+        this.bookSearchService.rebuild();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveAuthorMatches() throws Exception {
+        BookSearchResultDTO result = this.bookSearchService.search("tolkien", 0, 10);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getHits().get(0).getName()).isEqualTo("Tolkien: A Biography");
+        assertThat(result.getHits().get(0).getHighlights()).containsEntry("name", "<B>Tolkien</B>: A Biography");
+        assertThat(result.getHits().get(1).getHighlights()).containsEntry("author", "J. R. R. <B>Tolkien</B>");
+    }
+
+    @Test
+    void pagesThroughHits() throws Exception {
+        BookSearchResultDTO first = this.bookSearchService.search("tolkien", 0, 2);
+        BookSearchResultDTO second = this.bookSearchService.search("tolkien", 1, 2);
+
+        assertThat(first.getHits()).hasSize(2);
+        assertThat(second.getHits()).hasSize(1);
+        assertThat(second.getTotal()).isEqualTo(3);
+        assertThat(second.getHits().get(0).getId()).isNotIn(
+                first.getHits().stream().map(BookSearchHitDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void followsAddUpdateAndDelete() throws Exception {
+        Book added = this.bookService.addBook(Book.builder()
+                .name("Children of Dune")
+                .author(new Author("Frank Herbert"))
+                .publisher(new Publisher("Chilton"))
+                .shelf(Shelf.builder().id(this.shelf.getId()).build())
+                .status(Status.builder().statusType(StatusType.builder().id(this.read.getId()).build()).build())
+                .build());
+        assertThat(this.bookSearchService.search("dune", 0, 10).getTotal()).isEqualTo(2);
+
+        this.bookService.updateBook(added.getId(), Book.builder().name("Dune Messiah").build());
+        assertThat(this.bookSearchService.search("messiah", 0, 10).getHits())
+                .extracting(BookSearchHitDTO::getId).containsExactly(added.getId());
+        assertThat(this.bookSearchService.search("children", 0, 10).getTotal()).isZero();
+
+        this.bookService.deleteBook(added.getId());
+        assertThat(this.bookSearchService.search("messiah", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void toleratesQuerySyntaxErrors() throws Exception {
+        assertThat(this.bookSearchService.search("hobbit (", 0, 10).getTotal()).isEqualTo(1);
+        assertThatThrownBy(() -> this.bookSearchService.search(" ", 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void numbersGenerationsOnePastTheNewestOnDisk(@TempDir Path indexDirectory) throws Exception {
+        Files.createDirectories(indexDirectory.resolve("generation-0000000000000000007"));
+        Files.createDirectories(indexDirectory.resolve("generation--000000000000000042"));
+
+        BookSearchService service = new BookSearchService(this.bookRepository, this.transactionManager,
+                indexDirectory.toString());
+        try {
+            assertThat(generations(indexDirectory)).containsExactly("generation-0000000000000000007");
+
+            service.rebuild();
+
+            assertThat(generations(indexDirectory)).containsExactly("generation-0000000000000000008");
+            assertThat(service.search("dune", 0, 10).getTotal()).isEqualTo(1);
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static List<String> generations(Path indexDirectory) throws IOException {
+        try (Stream<Path> paths = Files.list(indexDirectory)) {
+            return paths.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+}
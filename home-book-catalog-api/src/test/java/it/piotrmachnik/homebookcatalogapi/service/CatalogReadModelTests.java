@@ -0,0 +1,171 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"catalog.read-model.enabled=true", "catalog.read-model.check-interval=1h"})
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class CatalogReadModelTests {
+
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShelfRepository shelfRepository;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private CatalogFixture catalog;
+
+    private Book hobbit;
+    private Shelf shelf;
+    private Room study;
+    private Room attic;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            this.study = this.catalog.room("Study");
+            this.attic = this.catalog.room("Attic");
+            this.shelf = this.catalog.shelf("A", 1, this.study);
+            this.catalog.shelf("B", 1, this.attic);
+            Author tolkien = this.catalog.author("J. R. R. Tolkien");
+            Publisher allen = this.catalog.publisher("Allen & Unwin");
+            this.hobbit = save("The Hobbit", tolkien, allen, read);
+            save("The Silmarillion", tolkien, null, read);
+            this.catalog.save(Book.builder().name("Untitled")
+                    .status(Status.builder().dateUp(new Date()).build()).build());
+        });
+        this.catalogReadModel.rebuild();
+    }
+
+    @Test
+    void snapshotRendersLikeTheDatabase() {
+        CatalogSnapshot snapshot = this.catalogReadModel.snapshot().orElseThrow();
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            assertThat(json(snapshot.books())).isEqualTo(json(this.bookRepository.findAll()));
+            assertThat(json(snapshot.booksByShelf(this.shelf.getId())))
+                    .isEqualTo(json(this.bookRepository.findByShelfId(this.shelf.getId())));
+            assertThat(json(snapshot.bookRows())).isEqualTo(json(this.bookService.getBookRows(BookSpecifications.all())));
+            assertThat(json(snapshot.bookRowsByRoom(this.study.getId())))
+                    .isEqualTo(json(this.bookService.getBookRows(BookSpecifications.byRoom(this.study.getId()))));
+            assertThat(json(snapshot.shelves())).isEqualTo(json(this.shelfRepository.findAll()));
+            assertThat(json(snapshot.shelfRows())).isEqualTo(json(this.shelfRepository.findRows()));
+            assertThat(json(snapshot.rooms())).isEqualTo(json(this.roomRepository.findAll()));
+            assertThat(json(snapshot.roomRows())).isEqualTo(json(this.roomService.getRoomsForAngular()));
+        });
+    }
+
+    @Test
+    void answersReadsWithoutStatements() throws Exception {
+        this.queryCounter.reset();
+
+        this.mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3));
+        this.mockMvc.perform(get("/api/books/{id}", this.hobbit.getId()))
+                .andExpect(jsonPath("$.shelf.room.name").value("Study"));
+        this.mockMvc.perform(get("/api/books").param("idRoom", this.study.getId().toString())
+                        .header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(jsonPath("$.length()").value(2));
+        this.mockMvc.perform(get("/api/shelves").header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(jsonPath("$[0].noBooks").value(2));
+        this.mockMvc.perform(get("/api/rooms").header(HttpHeaders.ACCEPT, ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(jsonPath("$[0].noShelves").value(1));
+
+        assertThat(this.queryCounter.statements()).isZero();
+    }
+
+    @Test
+    void replacesSnapshotOnCommittedChanges() throws Exception {
+        CatalogSnapshot before = this.catalogReadModel.snapshot().orElseThrow();
+
+        this.mockMvc.perform(patch("/api/books/{id}", this.hobbit.getId())
+                        .contentType(ApiVersion.V1_HAL_JSON)
+                        .content("{\"name\": \"The Hobbit, or There and Back Again\"}"))
+                .andExpect(status().isOk());
+        this.roomService.mergeRoom(this.study.getId(), this.attic.getId());
+
+        CatalogSnapshot after = this.catalogReadModel.snapshot().orElseThrow();
+        assertThat(before.book(this.hobbit.getId()).orElseThrow().getName()).isEqualTo("The Hobbit");
+        assertThat(before.room(this.study.getId())).isPresent();
+        assertThat(after.book(this.hobbit.getId()).orElseThrow().getName())
+                .isEqualTo("The Hobbit, or There and Back Again");
+        assertThat(after.room(this.study.getId())).isEmpty();
+        assertThat(after.booksByRoom(this.attic.getId())).hasSize(2);
+        assertThat(after.book(this.hobbit.getId()).orElseThrow().getShelf().getRoom().getName()).isEqualTo("Attic");
+    }
+
+    @Test
+    void reloadsWhenTheConsistencyCheckFindsMissedChanges() {
+        this.jdbcTemplate.update("update book set name = 'Renamed behind its back' where id_book = ?",
+                this.hobbit.getId());
+        assertThat(this.catalogReadModel.snapshot().orElseThrow().book(this.hobbit.getId()).orElseThrow().getName())
+                .isEqualTo("The Hobbit");
+
+        this.catalogReadModel.checkConsistency();
+
+        assertThat(this.catalogReadModel.snapshot().orElseThrow().book(this.hobbit.getId()).orElseThrow().getName())
+                .isEqualTo("Renamed behind its back");
+    }
+
+    private String json(Object value) {
+        try {
+            return this.objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Book save(String name, Author author, Publisher publisher, StatusType statusType) {
+        return this.catalog.save(Book.builder()
+                .name(name)
+                .author(author)
+                .publisher(publisher)
+                .shelf(this.shelf)
+                .status(Status.builder().statusType(statusType).dateUp(new Date()).comment("Shelved").build())
+                .build());
+    }
+}
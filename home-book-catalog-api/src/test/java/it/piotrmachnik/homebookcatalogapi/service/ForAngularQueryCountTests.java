@@ -0,0 +1,123 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.CatalogFixture;
+import it.piotrmachnik.homebookcatalogapi.QueryCounter;
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({QueryCounter.class, CatalogFixture.class})
+@ExtendWith(CatalogFixture.Cleanup.class)
+class ForAngularQueryCountTests {
+
+    private static final int ROOMS = 3;
+    private static final int SHELVES_PER_ROOM = 4;
+    private static final int BOOKS_PER_SHELF = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private CatalogFixture catalog;
+
+    @BeforeEach
+    void seedCatalog() {
+        this.catalog.seed(() -> {
+            StatusType read = this.catalog.statusType("Read");
+            StatusType unread = this.catalog.statusType("Unread");
+            Publisher publisher = this.catalog.publisher("Publisher");
+            for (int r = 0; r < ROOMS; r++) {
+                Room room = this.catalog.room("Room " + r);
+                for (int s = 0; s < SHELVES_PER_ROOM; s++) {
+                    Shelf shelf = this.catalog.shelf("S", s, room);
+                    Author author = this.catalog.author("Author " + r + s);
+                    for (int b = 0; b < BOOKS_PER_SHELF; b++) {
+                        this.catalog.book("Book " + r + s + b, author, publisher, shelf, b % 2 == 0 ? read : unread);
+                    }
+                }
+            }
+        });
+        this.queryCounter.reset();
+    }
+
+    @Test
+    void authorsForAngularCountBooksWithOneGroupedQuery() throws Exception {
+        this.mockMvc.perform(get("/api/authors").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(BOOKS_PER_SHELF));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void publishersForAngularCountBooksWithOneGroupedQuery() throws Exception {
+        this.mockMvc.perform(get("/api/publishers").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(ROOMS * SHELVES_PER_ROOM * BOOKS_PER_SHELF));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void shelvesForAngularProjectRowsWithOneQuery() throws Exception {
+        this.mockMvc.perform(get("/api/shelves").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(BOOKS_PER_SHELF))
+                .andExpect(jsonPath("$[0].room.name").value("Room 0"));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void booksForAngularProjectRowsWithOneQuery() throws Exception {
+        this.mockMvc.perform(get("/api/books").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ROOMS * SHELVES_PER_ROOM * BOOKS_PER_SHELF))
+                .andExpect(jsonPath("$[0].name").value("Book 000"))
+                .andExpect(jsonPath("$[0].author.name").value("Author 00"))
+                .andExpect(jsonPath("$[0].publisher.name").value("Publisher"))
+                .andExpect(jsonPath("$[0].shelf.room.name").value("Room 0"))
+                .andExpect(jsonPath("$[0].status.statusType.name").value("Read"))
+                .andExpect(jsonPath("$[0].status.dateUp").doesNotExist())
+                .andExpect(jsonPath("$[0].links[0].href").exists());
+
+        assertThat(this.queryCounter.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void roomsForAngularCountBooksAndShelvesWithOneGroupedQueryEach() throws Exception {
+        this.mockMvc.perform(get("/api/rooms").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].noBooks").value(SHELVES_PER_ROOM * BOOKS_PER_SHELF))
+                .andExpect(jsonPath("$[0].noShelves").value(SHELVES_PER_ROOM));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(3);
+    }
+
+    @Test
+    void statusTypesForAngularCountBooksWithOneGroupedQuery() throws Exception {
+        int books = ROOMS * SHELVES_PER_ROOM * BOOKS_PER_SHELF;
+        this.mockMvc.perform(get("/api/statustypes").accept(ApiVersion.V2_FOR_ANGULAR))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].noBooks", containsInAnyOrder(
+                        (books + ROOMS * SHELVES_PER_ROOM) / 2, (books - ROOMS * SHELVES_PER_ROOM) / 2)));
+
+        assertThat(this.queryCounter.statements()).isEqualTo(2);
+    }
+}
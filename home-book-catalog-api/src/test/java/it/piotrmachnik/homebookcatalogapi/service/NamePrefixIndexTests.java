@@ -0,0 +1,54 @@
+package it.piotrmachnik.homebookcatalogapi.service;
+
+import it.piotrmachnik.homebookcatalogapi.modelDTO.NameSuggestionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamePrefixIndexTests {
+
+    private NamePrefixIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        this.index = new NamePrefixIndex();
+        this.index.replaceAll(Map.of(
+                1, "Stanisław Lem",
+                2, "Stephen King",
+                3, "Andrzej Sapkowski",
+                4, "Stefan  Żeromski",
+                5, "Ursula K. Le Guin"));
+    }
+
+    @Test
+    void matchesNormalizedPrefixInNameOrder() {
+        assertThat(this.index.suggest("st", 10)).extracting(NameSuggestionDTO::getName)
+                .containsExactly("Stanisław Lem", "Stefan  Żeromski", "Stephen King");
+        assertThat(this.index.suggest("STANISLAW", 10)).extracting(NameSuggestionDTO::getId).containsExactly(1);
+        assertThat(this.index.suggest("stefan z", 10)).extracting(NameSuggestionDTO::getId).containsExactly(4);
+        assertThat(this.index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void limitsSuggestions() {
+        assertThat(this.index.suggest("", 2)).extracting(NameSuggestionDTO::getName)
+                .containsExactly("Andrzej Sapkowski", "Stanisław Lem");
+        assertThat(this.index.suggest("ste", 1)).extracting(NameSuggestionDTO::getId).containsExactly(4);
+    }
+
+    @Test
+    void keepsOrderAcrossPutAndRemove() {
+        this.index.put(6, "Sergiusz Piasecki");
+        this.index.put(2, "Terry Pratchett");
+        this.index.remove(3);
+        this.index.remove(42);
+
+        assertThat(this.index.size()).isEqualTo(5);
+        assertThat(this.index.suggest("", 10)).extracting(NameSuggestionDTO::getId)
+                .containsExactly(6, 1, 4, 2, 5);
+        assertThat(this.index.suggest("ste", 10)).extracting(NameSuggestionDTO::getId).containsExactly(4);
+    }
+}
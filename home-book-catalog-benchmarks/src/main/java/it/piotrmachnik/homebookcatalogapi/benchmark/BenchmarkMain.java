@@ -0,0 +1,20 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", ".*Benchmarks.*"))
+                .param("catalogSize", System.getProperty("benchmark.catalog-sizes", "1000").split(","))
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("benchmark.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import it.piotrmachnik.homebookcatalogapi.HomeBookCatalogApiApplication;
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.repository.BookRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.RoomRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.ShelfRepository;
+import it.piotrmachnik.homebookcatalogapi.repository.StatusTypeRepository;
+import it.piotrmachnik.homebookcatalogapi.service.BookImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    private static final int BOOKS_PER_SHELF = 50;
+    private static final int SHELVES_PER_ROOM = 10;
+
+    @Param({"1000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private List<Book> books;
+    private Integer idShelf;
+    private Integer idStatusType;
+
+    @Setup(Level.Trial)
+    public void start() {
+        this.context = new SpringApplicationBuilder(HomeBookCatalogApiApplication.class)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--catalog.search.index-dir=",
+                        "--catalog.export.fetch-size=1000",
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+        seed();
+        this.books = bean(BookRepository.class).findAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        this.context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return this.context.getBean(type);
+    }
+
+    public List<Book> getBooks() {
+        return this.books;
+    }
+
+    public Integer getIdShelf() {
+        return this.idShelf;
+    }
+
+    public Integer getIdStatusType() {
+        return this.idStatusType;
+    }
+
+    private void seed() {
+        List<StatusType> statusTypes = new ArrayList<>();
+        List<Shelf> shelves = new ArrayList<>();
+        int shelfCount = Math.max(1, this.catalogSize / BOOKS_PER_SHELF);
+        bean(TransactionTemplate.class).executeWithoutResult(status -> {
+            statusTypes.addAll(bean(StatusTypeRepository.class).saveAll(
+                    List.of(new StatusType("Read"), new StatusType("Unread"), new StatusType("Lent"))));
+            List<Room> rooms = bean(RoomRepository.class).saveAll(IntStream.range(0, (shelfCount - 1) / SHELVES_PER_ROOM + 1)
+                    .mapToObj(r -> new Room("Room " + r)).toList());
+            shelves.addAll(bean(ShelfRepository.class).saveAll(IntStream.range(0, shelfCount)
+                    .mapToObj(s -> Shelf.builder()
+                            .letter(String.valueOf((char) ('A' + s % 26)))
+                            .number(s / 26 + 1)
+                            .room(rooms.get(s / SHELVES_PER_ROOM))
+                            .build())
+                    .toList()));
+        });
+        this.idStatusType = statusTypes.get(0).getId();
+        this.idShelf = shelves.get(0).getId();
+
+        List<Book> catalog = new ArrayList<>(this.catalogSize);
+        for (int b = 0; b < this.catalogSize; b++) {
+            catalog.add(Book.builder()
+                    .name("Book " + b)
+                    .author(new Author("Author " + b % Math.max(1, this.catalogSize / 10)))
+                    .publisher(new Publisher("Publisher " + b % Math.max(1, this.catalogSize / 50)))
+                    .shelf(Shelf.builder().id(shelves.get(b % shelfCount).getId()).build())
+                    .status(Status.builder()
+                            .statusType(StatusType.builder().id(statusTypes.get(b % statusTypes.size()).getId()).build())
+                            .build())
+                    .build());
+        }
+        bean(BookImportService.class).addBooks(catalog.iterator());
+    }
+}
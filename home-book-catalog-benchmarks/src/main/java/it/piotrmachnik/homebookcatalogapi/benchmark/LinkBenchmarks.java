@@ -0,0 +1,67 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import it.piotrmachnik.homebookcatalogapi.controller.BookRestApiController;
+import it.piotrmachnik.homebookcatalogapi.controller.LinkTemplate;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkBenchmarks {
+
+    private static final LinkTemplate BOOK_LINK =
+            LinkTemplate.of(id -> methodOn(BookRestApiController.class).getBook(id, null));
+
+    private BookRestApiController controller;
+    private MethodHandle resource;
+    private Book book;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) throws ReflectiveOperationException {
+        this.controller = catalog.bean(BookRestApiController.class);
+        this.resource = MethodHandles.privateLookupIn(BookRestApiController.class, MethodHandles.lookup())
+                .findVirtual(BookRestApiController.class, "resource",
+                        MethodType.methodType(EntityModel.class, Book.class));
+        this.book = catalog.getBooks().get(0);
+    }
+
+    @Benchmark
+    public Link linkToMethodOn(RequestState request) {
+        return linkTo(methodOn(BookRestApiController.class).getBook(this.book.getId(), null)).withSelfRel();
+    }
+
+    @Benchmark
+    public Link linkTemplate(RequestState request) {
+        return BOOK_LINK.expand(this.book.getId());
+    }
+
+    @Benchmark
+    public Object resource(RequestState request) throws Throwable {
+        return this.resource.invoke(this.controller, this.book);
+    }
+
+    @Benchmark
+    public List<Object> resources(CatalogState catalog, RequestState request) throws Throwable {
+        List<Object> resources = new ArrayList<>(catalog.getBooks().size());
+        for (Book each : catalog.getBooks()) {
+            resources.add(this.resource.invoke(this.controller, each));
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,23 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@State(Scope.Thread)
+public class RequestState {
+
+    @Setup(Level.Trial)
+    public void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
@@ -0,0 +1,65 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import it.piotrmachnik.homebookcatalogapi.config.ApiVersion;
+import it.piotrmachnik.homebookcatalogapi.controller.BookRestApiController;
+import it.piotrmachnik.homebookcatalogapi.model.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+
+    private static final Type RESOURCES_TYPE =
+            ResolvableType.forClassWithGenerics(List.class,
+                    ResolvableType.forClassWithGenerics(EntityModel.class, Book.class)).getType();
+
+    @Param({ApiVersion.V1_HAL_JSON, ApiVersion.V1_CBOR, ApiVersion.V1_SMILE, ApiVersion.V2_FOR_ANGULAR})
+    public String mediaType;
+
+    private List<EntityModel<Book>> resources;
+    private MediaType contentType;
+    private GenericHttpMessageConverter<Object> converter;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp(CatalogState catalog, RequestState request) {
+        this.resources = catalog.getBooks().stream()
+                .map(book -> EntityModel.of(book,
+                        linkTo(methodOn(BookRestApiController.class)
+                                .getBook(book.getId(), null)).withSelfRel()))
+                .collect(Collectors.toList());
+        this.contentType = MediaType.parseMediaType(this.mediaType);
+        this.converter = catalog.bean(RequestMappingHandlerAdapter.class).getMessageConverters().stream()
+                .filter(GenericHttpMessageConverter.class::isInstance)
+                .map(GenericHttpMessageConverter.class::cast)
+                .filter(candidate -> candidate.canWrite(RESOURCES_TYPE, List.class, this.contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No converter writes " + this.mediaType));
+    }
+
+    @Benchmark
+    public byte[] serializeResources() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        this.converter.write(this.resources, RESOURCES_TYPE, this.contentType, output);
+        return output.getBodyAsBytes();
+    }
+}
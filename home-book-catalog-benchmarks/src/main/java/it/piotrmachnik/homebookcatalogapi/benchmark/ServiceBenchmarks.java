@@ -0,0 +1,37 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import it.piotrmachnik.homebookcatalogapi.model.*;
+import it.piotrmachnik.homebookcatalogapi.modelDTO.ShelfRowDTO;
+import it.piotrmachnik.homebookcatalogapi.service.BookService;
+import it.piotrmachnik.homebookcatalogapi.service.ShelfService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmarks {
+
+    // Every invocation adds a book, so the catalog grows slightly over the measurement.
+    @Benchmark
+    public Book addBook(CatalogState catalog) {
+        return catalog.bean(BookService.class).addBook(Book.builder()
+                .name("Benchmark book")
+                .author(new Author("Author 1"))
+                .publisher(new Publisher("Publisher 1"))
+                .shelf(Shelf.builder().id(catalog.getIdShelf()).build())
+                .status(Status.builder()
+                        .statusType(StatusType.builder().id(catalog.getIdStatusType()).build())
+                        .build())
+                .build());
+    }
+
+    @Benchmark
+    public List<ShelfRowDTO> getShelvesForAngular(CatalogState catalog) {
+        return catalog.bean(ShelfService.class).getShelvesForAngular();
+    }
+}
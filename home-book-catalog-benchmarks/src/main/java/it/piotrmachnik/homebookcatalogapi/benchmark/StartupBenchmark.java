@@ -0,0 +1,163 @@
+package it.piotrmachnik.homebookcatalogapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the packaged API in a fresh JVM per run, so every measurement is a cold start, and reports the time until
+ * the first successful {@code GET /api/books} together with the resident set size at that moment. The API has to be
+ * packaged with {@code -Pstartup}, which produces the runnable thin jar and the class-data-sharing archive.
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private final Path jar;
+    private final Path cdsArchive;
+    private final List<String> jvmArgs;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(Path jar, Path cdsArchive, List<String> jvmArgs) {
+        this.jar = jar;
+        this.cdsArchive = cdsArchive;
+        this.jvmArgs = jvmArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark(
+                Paths.get(System.getProperty("benchmark.startup.jar",
+                        "../home-book-catalog-api/target/home-book-catalog-api-0.0.1-SNAPSHOT.jar")),
+                Paths.get(System.getProperty("benchmark.startup.cds-archive",
+                        "../home-book-catalog-api/target/app-cds.jsa")),
+                Arrays.stream(System.getProperty("benchmark.startup.jvm-args", "").split(" "))
+                        .filter(arg -> !arg.isBlank()).toList());
+        int warmups = Integer.getInteger("benchmark.startup.warmups", 1);
+        int runs = Integer.getInteger("benchmark.startup.runs", 5);
+
+        List<Result> results = new ArrayList<>();
+        for (String variant : System.getProperty("benchmark.startup.variants", "eager,lazy,lazy-cds").split(",")) {
+            for (int run = 0; run < warmups; run++) {
+                benchmark.start(variant);
+            }
+            List<Sample> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(benchmark.start(variant));
+            }
+            Result result = Result.of(variant, samples);
+            System.out.printf("%-10s time-to-first-request median %6d ms (min %6d, max %6d)   RSS median %5d MB%n",
+                    variant, result.medianMillis(), result.minMillis(), result.maxMillis(), result.medianRssMegabytes());
+            results.add(result);
+        }
+        Path output = Paths.get(System.getProperty("benchmark.result", "target/startup-result.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+    }
+
+    private Sample start(String variant) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(this.jvmArgs);
+        switch (variant) {
+            case "eager", "lazy" -> {
+            }
+            case "lazy-cds" -> command.add("-XX:SharedArchiveFile=" + this.cdsArchive);
+            default -> throw new IllegalArgumentException("Unknown startup variant " + variant);
+        }
+        command.addAll(List.of("-jar", this.jar.toString(),
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--catalog.search.index-dir=",
+                "--catalog.snapshot.dir=",
+                "--catalog.export.fetch-size=1000",
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--logging.level.root=WARN"));
+        if (!variant.equals("eager")) {
+            command.add("--spring.profiles.active=startup");
+        }
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books")).GET().build();
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant + " exited with " + process.exitValue() + " before serving a request");
+                }
+                if (served(request)) {
+                    return new Sample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), rssMegabytes(process.pid()));
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException(variant + " did not serve a request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean served(HttpRequest request) throws InterruptedException {
+        try {
+            return this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Linux only; elsewhere the RSS column stays at -1.
+    private static long rssMegabytes(long pid) {
+        try {
+            return Files.readAllLines(Paths.get("/proc", Long.toString(pid), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(kilobytes -> Long.parseLong(kilobytes) / 1024)
+                    .findFirst().orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private record Sample(long millis, long rssMegabytes) {
+    }
+
+    public record Result(String variant, long medianMillis, long minMillis, long maxMillis, long medianRssMegabytes,
+                         List<Long> millis, List<Long> rssMegabytes) {
+
+        static Result of(String variant, List<Sample> samples) {
+            List<Long> millis = samples.stream().map(Sample::millis).sorted().toList();
+            List<Long> rss = samples.stream().map(Sample::rssMegabytes).sorted().toList();
+            return new Result(variant, millis.get(millis.size() / 2), millis.get(0), millis.get(millis.size() - 1),
+                    rss.get(rss.size() / 2), samples.stream().map(Sample::millis).toList(),
+                    samples.stream().map(Sample::rssMegabytes).toList());
+        }
+    }
+}